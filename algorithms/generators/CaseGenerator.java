@@ -0,0 +1,16 @@
+package generators;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Writes one test case of a problem's input format, streaming values out as they are generated.
+ */
+@FunctionalInterface
+public interface CaseGenerator {
+	/**
+	 * @param t      test case id (1-indexed)
+	 * @param random this case's own random stream, so each case is reproducible on its own
+	 */
+	void writeCase(int t, SplittableRandom random, PrintStream out);
+}
@@ -0,0 +1,90 @@
+package generators;
+
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Shapes of generated key sequences. All draws come from a caller-supplied seeded random,
+ * so the same seed always yields the same sequence.
+ */
+public enum Distribution {
+	/**
+	 * Keys drawn uniformly from [0, bound).
+	 */
+	UNIFORM,
+	/**
+	 * Keys in [0, bound) where key k is drawn with probability about 1/(k+1) - 1/(k+2): a few keys take most draws,
+	 * like word frequencies or cache traffic.
+	 */
+	SKEWED,
+	/**
+	 * Keys spread evenly over [0, bound) in ascending order. Adversarial for unbalanced trees (SimpleBST degenerates
+	 * into a list) and for anything that assumes random keys.
+	 */
+	SORTED;
+
+	public static final long DEFAULT_SEED = 42;
+
+	/**
+	 * Streams {count} keys in [0, bound) without holding them.
+	 */
+	public LongSupplier keys(long count, long bound, SplittableRandom random) {
+		if (count < 0 || bound <= 0) throw new IllegalArgumentException();
+		switch (this) {
+			case UNIFORM:
+				return () -> random.nextLong(bound);
+			case SKEWED:
+				return () -> (long) Math.min(bound, 1 / (1 - random.nextDouble())) - 1;
+			case SORTED:
+				return sortedKeys(count, bound);
+			default:
+				throw new IllegalStateException();
+		}
+	}
+
+	// i-th key is floor(i * bound / count), stepped incrementally so the product never overflows
+	private static LongSupplier sortedKeys(long count, long bound) {
+		long step = count == 0 ? 0 : bound / count;
+		long remainderStep = count == 0 ? 0 : bound % count;
+		return new LongSupplier() {
+			long key = 0;
+			long remainder = 0; // always < count
+
+			@Override
+			public long getAsLong() {
+				long current = key;
+				key += step;
+				remainder += remainderStep;
+				if (remainder >= count) {
+					remainder -= count;
+					key++;
+				}
+				return current;
+			}
+		};
+	}
+
+	/**
+	 * {n} keys in [0, bound), materialized.
+	 */
+	public long[] longs(int n, long bound, long seed) {
+		LongSupplier keys = keys(n, bound, new SplittableRandom(seed));
+		long[] values = new long[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = keys.getAsLong();
+		}
+		return values;
+	}
+
+	/**
+	 * {n} keys in [0, bound), materialized.
+	 */
+	public int[] ints(int n, int bound, long seed) {
+		LongSupplier keys = keys(n, bound, new SplittableRandom(seed));
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = (int) keys.getAsLong();
+		}
+		return values;
+	}
+}
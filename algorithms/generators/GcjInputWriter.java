@@ -0,0 +1,72 @@
+package generators;
+
+import util.BatchedOutputStream;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes Google Code Jam format input files: the number of cases T on the first line, then each case.
+ * Output is streamed through a {@link BatchedOutputStream}, so memory use does not depend on the file size.
+ */
+public class GcjInputWriter {
+
+	/**
+	 * Same seed, T and generator always write the same file.
+	 * Case t draws from the t-th stream split off the seed, so changing T keeps the earlier cases.
+	 */
+	public static void write(Path file, int T, long seed, CaseGenerator generator) throws IOException {
+		if (T < 0) throw new IllegalArgumentException();
+		SplittableRandom seedRandom = new SplittableRandom(seed);
+		try (PrintStream out = new PrintStream(new BatchedOutputStream(file))) {
+			out.println(T);
+			for (int t = 1; t <= T; t++) {
+				generator.writeCase(t, seedRandom.split(), out);
+			}
+			if (out.checkError()) throw new IOException("Failed writing " + file);
+		}
+	}
+
+	/**
+	 * Writes {count} values space-separated on one line.
+	 * Digits are formatted straight into bytes, as printing each number through the PrintStream's
+	 * character encoder costs more than generating it.
+	 */
+	static void writeLine(PrintStream out, long count, LongSupplier values) {
+		byte[] buf = new byte[1 << 13];
+		int len = 0;
+		for (long i = 0; i < count; i++) {
+			if (len > buf.length - 21) { // room for a separator and any long
+				out.write(buf, 0, len);
+				len = 0;
+			}
+			if (i > 0) buf[len++] = ' ';
+			len = appendDigits(values.getAsLong(), buf, len);
+		}
+		out.write(buf, 0, len);
+		out.println();
+	}
+
+	// writes value in decimal at buf[pos], returns the position after it
+	private static int appendDigits(long value, byte[] buf, int pos) {
+		if (value < 0) {
+			buf[pos++] = '-';
+		} else {
+			value = -value; // work in negatives so Long.MIN_VALUE needs no special case
+		}
+		int start = pos;
+		do {
+			buf[pos++] = (byte) ('0' - value % 10);
+			value /= 10;
+		} while (value != 0);
+		for (int i = start, j = pos - 1; i < j; i++, j--) { // digits came out least significant first
+			byte swap = buf[i];
+			buf[i] = buf[j];
+			buf[j] = swap;
+		}
+		return pos;
+	}
+}
@@ -0,0 +1,53 @@
+package generators;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Command line entry point:
+ * <p>
+ * GenerateInput {problem} {out file} {T} {size} [distribution] [seed]
+ * <p>
+ * problem: intervals | triplets | scrambled | keys
+ * distribution: uniform (default) | skewed | sorted
+ */
+public class GenerateInput {
+
+	public static void main(String... args) throws Exception {
+		if (args.length < 4) {
+			System.err.println("usage: GenerateInput {intervals|triplets|scrambled|keys} {out file} {T} {size}"
+							+ " [uniform|skewed|sorted] [seed]");
+			System.exit(2);
+		}
+		String problem = args[0];
+		Path outFile = Paths.get(args[1]);
+		int T = Integer.parseInt(args[2]);
+		int size = Integer.parseInt(args[3]);
+		Distribution distribution = args.length > 4
+						? Distribution.valueOf(args[4].toUpperCase(Locale.ROOT))
+						: Distribution.UNIFORM;
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : Distribution.DEFAULT_SEED;
+
+		long startTime = System.nanoTime();
+		GcjInputWriter.write(outFile, T, seed, generatorFor(problem, size, distribution));
+		double elapsedTime = (System.nanoTime() - startTime) / 1e9;
+		System.out.println("Wrote " + T + " " + distribution + " cases of size " + size + " to " + outFile
+						+ " in " + elapsedTime + "s");
+	}
+
+	static CaseGenerator generatorFor(String problem, int size, Distribution distribution) {
+		switch (problem) {
+			case "intervals":
+				return new IntervalsKthLargestCases(size, distribution);
+			case "triplets":
+				return new ProductTripletsCases(size, distribution);
+			case "scrambled":
+				return new ScrambledWordsCases(size, distribution);
+			case "keys":
+				return new KeySequenceCases(size, distribution);
+			default:
+				throw new IllegalArgumentException("Unknown problem: " + problem);
+		}
+	}
+}
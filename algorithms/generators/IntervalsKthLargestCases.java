@@ -0,0 +1,66 @@
+package generators;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Cases for {@link intervals.IntervalsKthLargest}: "N Q", then the X, Y and Z recurrence parameters
+ * "v1 v2 A B C M", one line each. N = Q = {size}. Cases are a few numbers whatever their size.
+ * <p>
+ * The distribution picks the recurrences:
+ * - UNIFORM: random parameters over the full modulus, so interval bounds look random
+ * - SKEWED: a modulus around sqrt(N), so bounds repeat and intervals pile up on few values
+ * - SORTED: X and Y step by 1 from random starts, giving monotone bounds (every interval the same length)
+ */
+public class IntervalsKthLargestCases implements CaseGenerator {
+	static final long MAX_PARAM = 1_000_000_000;
+
+	private final int size;
+	private final Distribution distribution;
+
+	public IntervalsKthLargestCases(int size, Distribution distribution) {
+		if (size <= 0) throw new IllegalArgumentException();
+		this.size = size;
+		this.distribution = distribution;
+	}
+
+	@Override
+	public void writeCase(int t, SplittableRandom random, PrintStream out) {
+		out.println(size + " " + size);
+		writeBoundParams(random, out); // X
+		writeBoundParams(random, out); // Y
+		// K values stay random, but within the total number of scores so most questions have an answer
+		long zModulus = distribution == Distribution.SKEWED ? Math.min(MAX_PARAM, size * skewedModulus()) : MAX_PARAM;
+		writeRandomParams(random, out, zModulus);
+	}
+
+	private void writeBoundParams(SplittableRandom random, PrintStream out) {
+		switch (distribution) {
+			case UNIFORM:
+				writeRandomParams(random, out, MAX_PARAM / 2 + random.nextLong(MAX_PARAM / 2));
+				break;
+			case SKEWED:
+				writeRandomParams(random, out, skewedModulus());
+				break;
+			case SORTED:
+				long start = random.nextLong(MAX_PARAM - size);
+				writeParams(out, start, start + 1, 1, 0, 1, MAX_PARAM);
+				break;
+			default:
+				throw new IllegalStateException();
+		}
+	}
+
+	private long skewedModulus() {
+		return Math.max(2, (long) Math.sqrt(size));
+	}
+
+	private static void writeRandomParams(SplittableRandom random, PrintStream out, long m) {
+		writeParams(out, random.nextLong(m), random.nextLong(m), random.nextLong(m), random.nextLong(m),
+						random.nextLong(m), m);
+	}
+
+	private static void writeParams(PrintStream out, long v1, long v2, long a, long b, long c, long m) {
+		out.println(v1 + " " + v2 + " " + a + " " + b + " " + c + " " + m);
+	}
+}
@@ -0,0 +1,35 @@
+package generators;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Generic key workloads: "N", then N keys in [0, bound) on one line. N = {size}.
+ * For driving the data structures: insertion orders for {@link trees.SimpleBST} (SORTED degenerates it into a list),
+ * access traces for {@link other_structures.LRUCache}, or items for the counters.
+ */
+public class KeySequenceCases implements CaseGenerator {
+	private final int size;
+	private final Distribution distribution;
+	private final long bound;
+
+	/**
+	 * Keys range over [0, size).
+	 */
+	public KeySequenceCases(int size, Distribution distribution) {
+		this(size, distribution, Math.max(1, size));
+	}
+
+	public KeySequenceCases(int size, Distribution distribution, long bound) {
+		if (size < 0) throw new IllegalArgumentException();
+		this.size = size;
+		this.distribution = distribution;
+		this.bound = bound;
+	}
+
+	@Override
+	public void writeCase(int t, SplittableRandom random, PrintStream out) {
+		out.println(size);
+		GcjInputWriter.writeLine(out, size, distribution.keys(size, bound, random));
+	}
+}
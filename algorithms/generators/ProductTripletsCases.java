@@ -0,0 +1,34 @@
+package generators;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Cases for {@link sets_and_tuples.ProductTriplets}: "N", then N values in [0, maxValue] on one line.
+ * N = {size}. SKEWED values are mostly 0s, 1s and 2s (many duplicate triplets);
+ * SORTED values are as distinct as the range allows, the worst case for the quadratic pair loop.
+ */
+public class ProductTripletsCases implements CaseGenerator {
+	public static final long DEFAULT_MAX_VALUE = 200_000;
+
+	private final int size;
+	private final Distribution distribution;
+	private final long maxValue;
+
+	public ProductTripletsCases(int size, Distribution distribution) {
+		this(size, distribution, DEFAULT_MAX_VALUE);
+	}
+
+	public ProductTripletsCases(int size, Distribution distribution, long maxValue) {
+		if (size < 0 || maxValue < 0) throw new IllegalArgumentException();
+		this.size = size;
+		this.distribution = distribution;
+		this.maxValue = maxValue;
+	}
+
+	@Override
+	public void writeCase(int t, SplittableRandom random, PrintStream out) {
+		out.println(size);
+		GcjInputWriter.writeLine(out, size, distribution.keys(size, maxValue + 1, random));
+	}
+}
@@ -0,0 +1,72 @@
+package generators;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Cases for {@link sequences.ScrambledWords}: "L", the L dictionary words on one line, then the string's
+ * recurrence parameters "S1 S2 N A B C D". N = {size}, and the dictionary holds about N / 10 letters.
+ * Words are written letter by letter, so no word or string is ever held.
+ * <p>
+ * - UNIFORM: random letters, word lengths random in [2, 20]
+ * - SKEWED: letters skewed towards the start of the alphabet in both dictionary and string, so many words match
+ * - SORTED: word lengths 2, 3, 4, ..., so every word has its own length, the worst case for the
+ * one-pass-per-length solution
+ */
+public class ScrambledWordsCases implements CaseGenerator {
+	static final int MIN_WORD_LENGTH = 2;
+	static final int MAX_RANDOM_WORD_LENGTH = 20;
+	static final long MAX_PARAM = 1_000_000_000;
+
+	private final int size;
+	private final Distribution distribution;
+
+	public ScrambledWordsCases(int size, Distribution distribution) {
+		if (size < MIN_WORD_LENGTH) throw new IllegalArgumentException();
+		this.size = size;
+		this.distribution = distribution;
+	}
+
+	@Override
+	public void writeCase(int t, SplittableRandom random, PrintStream out) {
+		long dictLetters = Math.max(MIN_WORD_LENGTH, size / 10);
+		int nWords = distribution == Distribution.SORTED
+						? distinctLengthWords(dictLetters)
+						: (int) Math.max(1, dictLetters / ((MIN_WORD_LENGTH + MAX_RANDOM_WORD_LENGTH) / 2));
+		out.println(nWords);
+		LongSupplier letters = distribution == Distribution.SKEWED
+						? Distribution.SKEWED.keys(dictLetters, 26, random)
+						: Distribution.UNIFORM.keys(dictLetters, 26, random);
+		for (int w = 0; w < nWords; w++) {
+			if (w > 0) out.print(' ');
+			int length = distribution == Distribution.SORTED
+							? MIN_WORD_LENGTH + w
+							: MIN_WORD_LENGTH + random.nextInt(MAX_RANDOM_WORD_LENGTH - MIN_WORD_LENGTH + 1);
+			for (int i = 0; i < Math.min(length, size); i++) {
+				out.print((char) ('a' + letters.getAsLong()));
+			}
+		}
+		out.println();
+
+		// generated letters are x % 26 for x < D, so a small D keeps the string to the first few letters
+		long d = distribution == Distribution.SKEWED
+						? 1 + random.nextLong(26)
+						: MAX_PARAM / 2 + random.nextLong(MAX_PARAM / 2);
+		char s1 = (char) ('a' + random.nextInt(26));
+		char s2 = (char) ('a' + random.nextInt(26));
+		out.println(s1 + " " + s2 + " " + size + " " + random.nextLong(MAX_PARAM) + " " + random.nextLong(MAX_PARAM)
+						+ " " + random.nextLong(MAX_PARAM) + " " + d);
+	}
+
+	// most words of lengths 2, 3, 4, ... that fit in the letter budget
+	private static int distinctLengthWords(long dictLetters) {
+		int nWords = 0;
+		long used = 0;
+		while (used + MIN_WORD_LENGTH + nWords <= dictLetters) {
+			used += MIN_WORD_LENGTH + nWords;
+			nWords++;
+		}
+		return Math.max(1, nWords);
+	}
+}
@@ -54,24 +54,29 @@ public class IntervalsKthLargest {
 		}
 	}
 
+	private static final int MAX_PRESIZE = 1 << 22; // cap on the layer change table presized for N intervals
+
 	// Disjoint intervals where each interval has same number of duplicates for all its values
 	// Ordered largest to smallest in largestVal
 	// Ordered smallest to largest in nLargerThan
 	private List<FixedCountRange> disjointIntervals;
 	public final long numVals; // total count of values across all intervals
 
-	long[] X;
-	long[] Y;
-
-	// O(NlogN + N) time
 	IntervalsKthLargest(int N, long[] X, long[] Y) {
-		this.X = X;
-		this.Y = Y;
-		List<Counter.Entry<Long>> layerChLocsReversed = getLayerChangeLocsReverseOrder(N, X, Y);
-		disjointIntervals = generateIntervals(layerChLocsReversed);
+		this(N, Arrays.stream(X).iterator(), Arrays.stream(Y).iterator());
+	}
+
+	/**
+	 * Pulls N terms from each of X and Y, without holding them (eg. from a {@link LinearRecurrence}).
+	 * O(NlogN + N) time, O(distinct interval bounds) memory.
+	 */
+	IntervalsKthLargest(int N, PrimitiveIterator.OfLong X, PrimitiveIterator.OfLong Y) {
+		// bulk export into primitive arrays sorted ascending, so traverse from the back for largest to smallest
+		SortedCounts layerChangeLocs = getLayerChanges(N, X, Y).exportSorted();
+		disjointIntervals = generateIntervals(layerChangeLocs);
 		if (disjointIntervals.size() > 0) {
 			FixedCountRange lastInterval = disjointIntervals.get(disjointIntervals.size() - 1);
-			long smallestValue = layerChLocsReversed.get(layerChLocsReversed.size() - 1).item + 1;
+			long smallestValue = layerChangeLocs.keys[0] + 1;
 			long numValsInLastInterval = lastInterval.nLayers * (lastInterval.largestVal - smallestValue + 1);
 			numVals = lastInterval.nLargerThan + numValsInLastInterval;
 		} else {
@@ -80,12 +85,12 @@ public class IntervalsKthLargest {
 	}
 
 	// O(N) time
-	private List<FixedCountRange> generateIntervals(List<Counter.Entry<Long>> layerChangeLocsReverseOrder) {
+	private List<FixedCountRange> generateIntervals(SortedCounts layerChangeLocs) {
 		List<FixedCountRange> intervals = new ArrayList<>();
 		FixedCountRange prevInterval = new FixedCountRange(Long.MAX_VALUE, 0, 0);
-		for (Counter.Entry<Long> entry : layerChangeLocsReverseOrder) {
-			long largestVal = entry.item;
-			int layerDelta = entry.count;
+		for (int i = layerChangeLocs.size() - 1; i >= 0; i--) { // largest to smallest
+			long largestVal = layerChangeLocs.keys[i];
+			int layerDelta = layerChangeLocs.counts[i];
 			int nLayers = prevInterval.nLayers + layerDelta;
 			long nLargerThan = prevInterval.nLargerThan + prevInterval.nLayers * (prevInterval.largestVal - largestVal);
 
@@ -99,14 +104,16 @@ public class IntervalsKthLargest {
 		return intervals;
 	}
 
-	// O(NlogN + N) time
-	private List<Counter.Entry<Long>> getLayerChangeLocsReverseOrder(int N, long[] X, long[] Y) {
+	// O(N) time
+	private LongCounter getLayerChanges(int N, PrimitiveIterator.OfLong X, PrimitiveIterator.OfLong Y) {
 		// retrieve all values where there's a change in layers, along with accumulated change value
 		// set counter to drop 0-counts so only values which have a change in layers are tracked
-		Counter<Long> layerChanges = new Counter<>(true, false);
+		// primitive counter so the 2N updates below don't box keys or counts
+		// presize for the common case, but let repeated bounds keep the table small for huge N
+		LongCounter layerChanges = new LongCounter(true, false, (int) Math.min(2L * N, MAX_PRESIZE));
 		for (int i = 0; i < N; i++) { // process each range and accumulate layer changes
-			long lowerBound = X[i] + 1;
-			long upperBound = Y[i] + 1;
+			long lowerBound = X.nextLong() + 1;
+			long upperBound = Y.nextLong() + 1;
 			if (lowerBound > upperBound) { // enforce lower <= upper
 				lowerBound ^= upperBound;
 				upperBound ^= lowerBound;
@@ -115,12 +122,7 @@ public class IntervalsKthLargest {
 			layerChanges.incrementCountFor(upperBound); // when traversing largest to smallest, ranges 'start' at their upper bound
 			layerChanges.decrementCountFor(lowerBound - 1); // and ranges 'end' at the next integer 'after' their lower bound
 		}
-
-		List<Counter.Entry<Long>> layerChangeLocs = layerChanges.getEntries();
-		layerChangeLocs.sort(Comparator
-						.comparingLong((Counter.Entry<Long> x) -> x.item) // it's 2018 and java type generics are still a clusterfuck
-						.reversed()); // sort by values largest to smallest
-		return layerChangeLocs;
+		return layerChanges;
 	}
 
 
@@ -158,35 +160,48 @@ public class IntervalsKthLargest {
 	}
 
 	long genAnswerProof(long[] Z) {
+		return genAnswerProof(Arrays.stream(Z).iterator());
+	}
+
+	/**
+	 * Pulls every remaining term of Z, without holding them.
+	 */
+	long genAnswerProof(PrimitiveIterator.OfLong Z) {
 		long sum = 0;
-		for (int i = 0; i < Z.length; i++) {
-			sum += getKthLargestValue(Z[i] + 1) * (i + 1);
+		for (long i = 1; Z.hasNext(); i++) {
+			sum += getKthLargestValue(Z.nextLong() + 1) * i;
 		}
 		return sum;
 	}
 
 	static long[] genSequence(int len, long v1, long v2, long a, long b, long c, long m) {
-		long[] seq = new long[len];
-		if (len > 0) seq[0] = v1;
-		if (len > 1) seq[1] = v2;
-		for (int i = 2; i < len; i++) {
-			seq[i] = (a * seq[i - 1] + b * seq[i - 2] + c) % m;
+		return new LinearRecurrence(len, v1, v2, a, b, c, m).toArray();
+	}
+
+	// v1, v2, a, b, c, m
+	private static long[] readSequenceParams(FastInput in) {
+		long[] params = new long[6];
+		for (int i = 0; i < params.length; i++) {
+			params[i] = in.nextLong();
 		}
-		return seq;
+		return params;
 	}
 
 	public static void main(String... args) throws Exception {
 		Path inPath = ProblemSetIO.askForInputFile();
 		Path outPath = ProblemSetIO.defaultOutFile(inPath);
 
-		ProblemSetIO.googleCodeJamFileIO(inPath, outPath, (t, in, out) -> {
+		ProblemSetIO.googleCodeJamParallelFileIO(inPath, outPath, (t, in) -> {
 			int N = in.nextInt();
 			int Q = in.nextInt();
-			long[] X = genSequence(N, in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong());
-			long[] Y = genSequence(N, in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong());
-			long[] Z = genSequence(Q, in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong());
-			IntervalsKthLargest solver = new IntervalsKthLargest(N, X, Y);
-			out.println("Case #" + t + ": " + solver.genAnswerProof(Z));
+			long[] xParams = readSequenceParams(in);
+			long[] yParams = readSequenceParams(in);
+			long[] zParams = readSequenceParams(in);
+			return () -> { // sequences are streamed on the worker, input only holds the 18 parameters
+				IntervalsKthLargest solver = new IntervalsKthLargest(N,
+								LinearRecurrence.of(N, xParams), LinearRecurrence.of(N, yParams));
+				return solver.genAnswerProof(LinearRecurrence.of(Q, zParams));
+			};
 		});
 	}
 }
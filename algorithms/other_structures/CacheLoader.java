@@ -0,0 +1,33 @@
+package other_structures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the values of keys missing from a {@link LoadingLRUCache}.
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+	/**
+	 * @return the value of key, or null if it has none, in which case nothing is cached
+	 */
+	V load(K key);
+
+	/**
+	 * Loads several keys at once. Override when the source can fetch a batch more cheaply than key by key,
+	 * eg. with one query; by default, loads each key in turn.
+	 *
+	 * @return values of the keys that have one; keys missing from the result are not cached
+	 */
+	default Map<K, V> loadAll(Set<? extends K> keys) {
+		Map<K, V> values = new HashMap<>();
+		for (K key : keys) {
+			V value = load(key);
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,53 @@
+package other_structures;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of a cache's counters, for tuning capacity from observed traffic.
+ * Get latencies are sampled (see {@link LRUCache#LATENCY_SAMPLE_RATE}), so they describe typical calls
+ * rather than every call.
+ */
+public class CacheStats {
+	public final long hitCount;
+	public final long missCount;
+	public final long evictionCount; // entries removed to make room
+	public final long updateCount; // puts that overwrote a cached key's value
+	public final long latencySamples;
+	public final double meanGetNanos;
+	public final long p50GetNanos;
+	public final long p99GetNanos;
+	public final long maxGetNanos;
+
+	public CacheStats(long hitCount, long missCount, long evictionCount, long updateCount,
+	                  long latencySamples, double meanGetNanos, long p50GetNanos, long p99GetNanos, long maxGetNanos) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.updateCount = updateCount;
+		this.latencySamples = latencySamples;
+		this.meanGetNanos = meanGetNanos;
+		this.p50GetNanos = p50GetNanos;
+		this.p99GetNanos = p99GetNanos;
+		this.maxGetNanos = maxGetNanos;
+	}
+
+	public long requestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * Fraction of gets that hit, 1 if there were none.
+	 */
+	public double hitRate() {
+		long requests = requestCount();
+		return requests == 0 ? 1 : (double) hitCount / requests;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+						"%d gets, hit rate %.2f%%, %d evictions, %d updates, get latency mean %.0fns p50 %dns p99 %dns max %dns (%d samples)",
+						requestCount(), 100 * hitRate(), evictionCount, updateCount,
+						meanGetNanos, p50GetNanos, p99GetNanos, maxGetNanos, latencySamples);
+	}
+}
@@ -0,0 +1,122 @@
+package other_structures;
+
+import java.util.Scanner;
+
+/**
+ * CLOCK approximation of {@link LRUCache}, with the same get/put contract.
+ * <p>
+ * Entries sit in a fixed ring of slots, looked up through a {@link SlotIndex}. A hit only sets the entry's
+ * reference bit, with no list to rewire. To make room, a hand sweeps the ring, clearing reference bits
+ * as it goes, and evicts the first entry whose bit is already clear: one not hit since the hand last passed.
+ * Hit entries thus get a second chance, which approximates evicting the least recently used one.
+ * New entries start unreferenced, so an entry never hit after its put is evicted on the hand's next pass.
+ * <p>
+ * Like {@link IntLRUCache}, get and put allocate nothing once constructed.
+ */
+public class ClockCache {
+	private static final int NONE = -1;
+
+	private final int[] keys;
+	private final int[] values;
+	private final boolean[] referenced; // hit since the hand last passed
+	private final SlotIndex store;
+	private int hand = 0; // next slot to consider for eviction
+	private int size = 0;
+	public final int cap;
+
+	public ClockCache(int capacity) {
+		cap = capacity;
+		int slots = Math.max(0, capacity);
+		keys = new int[slots];
+		values = new int[slots];
+		referenced = new boolean[slots];
+		store = new SlotIndex(slots);
+	}
+
+	/**
+	 * Keys in the order the hand will reach them, referenced ones marked with *.
+	 */
+	public String useOrder() {
+		if (size == 0) {
+			return "EMPTY";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			int slot = (hand + i) % size;
+			sb.append(keys[slot]).append(referenced[slot] ? "*" : "").append(" > ");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return -1 if key is not cached
+	 * O(1) time, allocation-free.
+	 */
+	public int get(int key) {
+		if (cap <= 0) return -1;
+		int slot = store.get(key);
+		if (slot == NONE) {
+			return -1;
+		}
+		referenced[slot] = true;
+		return values[slot];
+	}
+
+	/**
+	 * O(1) amortized time: each sweep step clears a bit that a hit had to set. Allocation-free.
+	 */
+	public void put(int key, int value) {
+		if (cap <= 0) return;
+		int slot = store.get(key);
+		if (slot == NONE) { // not found, need to expand
+			if (size == cap) {
+				slot = evict();
+			} else {
+				slot = size++;
+			}
+			keys[slot] = key;
+			referenced[slot] = false;
+			store.put(key, slot);
+		} else {
+			referenced[slot] = true;
+		}
+		values[slot] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// sweeps the hand past referenced entries, clearing their bits, and frees the first unreferenced one
+	private int evict() {
+		while (referenced[hand]) {
+			referenced[hand] = false;
+			hand = hand + 1 == cap ? 0 : hand + 1;
+		}
+		int victim = hand;
+		hand = hand + 1 == cap ? 0 : hand + 1;
+		store.remove(keys[victim]);
+		return victim;
+	}
+
+	public static void main(String... args) {
+		Scanner in = new Scanner(System.in);
+		ClockCache cache = new ClockCache(in.nextInt());
+		in.nextLine();
+		System.out.println(cache.useOrder());
+		String input = in.nextLine();
+		while (!input.equals("quit")) {
+			String[] tokens = input.split(" ");
+			switch (tokens[0]) {
+				case "put":
+					cache.put(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+					break;
+				case "get":
+					System.out.println(cache.get(Integer.parseInt(tokens[1])));
+					break;
+			}
+			System.out.println(cache.useOrder());
+			input = in.nextLine();
+		}
+	}
+}
@@ -0,0 +1,333 @@
+package other_structures;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe counterpart of {@link LRUCache}, with the same get/put contract.
+ * <p>
+ * Keys are sharded by hash across independent segments, each an LRUCache-style map plus recency list
+ * guarded by its own lock, and each holding an equal share of the capacity. Evicting the least recently used
+ * entry of a segment approximates evicting the globally least recently used one.
+ * <p>
+ * Reads never take a lock: get looks the key up in a ConcurrentHashMap and records the access in one of
+ * several small ring buffers, striped by thread. A buffer that fills up is replayed into the recency list
+ * by whichever thread wins a tryLock; puts replay them too. If the lock is busy and the buffer full,
+ * the access is dropped, so under heavy contention recency order is approximate, but readers never wait.
+ */
+public class ConcurrentLRUCache {
+	private static final int READ_BUFFER_SIZE = 32; // power of 2
+	private static final int MAX_SEGMENTS = 1 << 16;
+
+	static class Node {
+		final int key;
+		volatile int value;
+		// guarded by the segment's lock
+		Node newer;
+		Node older;
+		boolean linked; // false once evicted, so stale buffered reads are skipped
+
+		Node(int key, int value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() {
+			return "" + key + " -> " + value;
+		}
+	}
+
+	/**
+	 * Lossy multi-producer ring of nodes read since the last drain. Drained only under the segment's lock.
+	 */
+	static class ReadBuffer {
+		private final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+		private final AtomicLong writeCount = new AtomicLong();
+		private volatile long readCount = 0;
+
+		/**
+		 * @return false if the buffer is full and should be drained
+		 */
+		boolean offer(Node node) {
+			long tail = writeCount.get();
+			if (tail - readCount >= READ_BUFFER_SIZE) {
+				return false;
+			}
+			if (writeCount.compareAndSet(tail, tail + 1)) {
+				slots.lazySet((int) tail & (READ_BUFFER_SIZE - 1), node);
+			} // else lost a race to another reader: dropping this access is cheaper than retrying
+			return true;
+		}
+
+		void drainTo(Segment segment) {
+			long head = readCount;
+			long tail = writeCount.get();
+			for (; head < tail; head++) {
+				int index = (int) head & (READ_BUFFER_SIZE - 1);
+				Node node = slots.get(index);
+				if (node == null) break; // claimed but not yet published, pick it up next drain
+				slots.lazySet(index, null);
+				if (node.linked) { // else evicted since it was read
+					segment.makeMostRecent(node);
+				}
+			}
+			readCount = head;
+		}
+	}
+
+	static class Segment {
+		final ReentrantLock lock = new ReentrantLock();
+		final ConcurrentHashMap<Integer, Node> store;
+		final ReadBuffer[] readBuffers;
+		final int cap;
+		// guarded by lock
+		Node newest = null;
+		Node oldest = null;
+		int size = 0;
+
+		Segment(int capacity, int nReadBuffers) {
+			this.cap = capacity;
+			this.store = new ConcurrentHashMap<>(capacity);
+			this.readBuffers = new ReadBuffer[nReadBuffers];
+			for (int i = 0; i < nReadBuffers; i++) {
+				readBuffers[i] = new ReadBuffer();
+			}
+		}
+
+		int get(int key) {
+			Node node = store.get(key);
+			if (node == null) {
+				return -1;
+			}
+			int value = node.value;
+			ReadBuffer buffer = readBuffers[bufferIndex(readBuffers.length)];
+			if (!buffer.offer(node) && lock.tryLock()) {
+				try {
+					drainReadBuffers();
+					if (node.linked) {
+						makeMostRecent(node);
+					}
+				} finally {
+					lock.unlock();
+				}
+			}
+			return value;
+		}
+
+		void put(int key, int value) {
+			lock.lock();
+			try {
+				drainReadBuffers();
+				Node node = store.get(key);
+				if (node == null) { // not found, need to expand
+					if (size == cap) {
+						invalidateOldest();
+					}
+					node = new Node(key, value);
+					linkNewest(node);
+					store.put(key, node); // linked before it is visible to readers
+					size++;
+				} else {
+					node.value = value;
+					makeMostRecent(node);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		// under lock
+		void drainReadBuffers() {
+			for (ReadBuffer buffer : readBuffers) {
+				buffer.drainTo(this);
+			}
+		}
+
+		// under lock
+		void makeMostRecent(Node node) {
+			if (newest == node) {
+				return;
+			}
+			unlink(node);
+			linkNewest(node);
+		}
+
+		// under lock
+		private void linkNewest(Node node) {
+			node.older = newest;
+			if (newest != null) {
+				newest.newer = node;
+			}
+			newest = node;
+			if (oldest == null) {
+				oldest = node;
+			}
+			node.linked = true;
+		}
+
+		// under lock, handles empty list ops
+		void invalidateOldest() {
+			Node node = oldest;
+			if (node != null) {
+				unlink(node);
+				store.remove(node.key);
+				size--;
+			}
+		}
+
+		// under lock
+		private void unlink(Node node) {
+			if (node.newer != null) {
+				node.newer.older = node.older;
+			} else {
+				newest = node.older;
+			}
+			if (node.older != null) {
+				node.older.newer = node.newer;
+			} else {
+				oldest = node.newer;
+			}
+			node.newer = null;
+			node.older = null;
+			node.linked = false;
+		}
+
+		// false if empty
+		boolean appendUseOrder(StringBuilder sb) {
+			lock.lock();
+			try {
+				drainReadBuffers();
+				for (Node node = newest; node != null; node = node.older) {
+					sb.append(node.key).append(" < ");
+				}
+				return newest != null;
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private final Segment[] segments;
+	private final int segmentShift;
+	public final int cap;
+
+	/**
+	 * Sized for as many concurrent writers as there are processors.
+	 */
+	public ConcurrentLRUCache(int capacity) {
+		this(capacity, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param concurrencyLevel expected number of concurrent writers. Rounded up to a power of 2 segments,
+	 *                         but never more segments than entries of capacity.
+	 */
+	public ConcurrentLRUCache(int capacity, int concurrencyLevel) {
+		if (concurrencyLevel <= 0) throw new IllegalArgumentException();
+		this.cap = capacity;
+		int nSegments = 1;
+		while (nSegments < concurrencyLevel && nSegments < MAX_SEGMENTS && 2 * nSegments <= capacity) {
+			nSegments <<= 1;
+		}
+		this.segmentShift = 32 - Integer.numberOfTrailingZeros(nSegments);
+		this.segments = new Segment[nSegments];
+		int nReadBuffers = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+		for (int i = 0; i < nSegments; i++) {
+			// spread the remainder, so segment capacities sum to the total
+			int segmentCapacity = Math.max(0, capacity / nSegments + (i < capacity % nSegments ? 1 : 0));
+			segments[i] = new Segment(segmentCapacity, nReadBuffers);
+		}
+	}
+
+	/**
+	 * @return -1 if key is not cached
+	 * O(1) time, lock-free unless this thread's read buffer is full and the segment lock is free.
+	 */
+	public int get(int key) {
+		Segment segment = segmentFor(key);
+		return segment.cap <= 0 ? -1 : segment.get(key);
+	}
+
+	/**
+	 * O(1) time, under the key's segment lock.
+	 */
+	public void put(int key, int value) {
+		Segment segment = segmentFor(key);
+		if (segment.cap <= 0) return;
+		segment.put(key, value);
+	}
+
+	/**
+	 * Number of cached entries. May be stale by the time it returns if other threads are writing.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.store.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Recency order within each segment, newest first, segments separated by " | ".
+	 * O(n) time, taking each segment's lock in turn.
+	 */
+	public String useOrder() {
+		StringBuilder sb = new StringBuilder();
+		boolean empty = true;
+		for (int i = 0; i < segments.length; i++) {
+			if (i > 0) sb.append(" | ");
+			empty &= !segments[i].appendUseOrder(sb);
+		}
+		return empty ? "EMPTY" : sb.toString();
+	}
+
+	private Segment segmentFor(int key) {
+		// top bits of the scrambled hash, so keys in a narrow range still spread evenly
+		int hash = key * 0x9E3779B9;
+		return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+	}
+
+	private static int bufferIndex(int nBuffers) {
+		long id = Thread.currentThread().getId();
+		return (int) (id * 0x9E3779B97F4A7C15L >>> 40) & (nBuffers - 1);
+	}
+
+	public static void main(String... args) throws InterruptedException {
+		int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+		int nThreads = Runtime.getRuntime().availableProcessors();
+		ConcurrentLRUCache cache = new ConcurrentLRUCache(capacity);
+		for (int key = 0; key < capacity; key++) {
+			cache.put(key, key);
+		}
+		Thread[] threads = new Thread[nThreads];
+		long[] hits = new long[nThreads];
+		long start = System.nanoTime();
+		for (int t = 0; t < nThreads; t++) {
+			int id = t;
+			threads[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < 10_000_000; i++) {
+					int key = random.nextInt(capacity + capacity / 8); // mostly hits
+					if (cache.get(key) == -1) {
+						cache.put(key, key);
+					} else {
+						hits[id]++;
+					}
+				}
+			});
+			threads[t].start();
+		}
+		long totalHits = 0;
+		for (int t = 0; t < nThreads; t++) {
+			threads[t].join();
+			totalHits += hits[t];
+		}
+		System.out.printf("%d threads, %d hits, %.1f ms, %d entries%n",
+						nThreads, totalHits, (System.nanoTime() - start) / 1e6, cache.size());
+	}
+}
@@ -0,0 +1,125 @@
+package other_structures;
+
+import java.util.Arrays;
+
+/**
+ * Approximate recent access frequency of long keys, for cache admission decisions: a Count-Min sketch of
+ * small saturating counters that ages itself.
+ * <p>
+ * After every sampleSize increments, all counters are halved, so popularity fades unless it is renewed
+ * and keys that were hot long ago cannot crowd out what is hot now.
+ * Estimates are at most {@link #MAX_COUNT}, which is all an admission comparison needs.
+ * <p>
+ * A key's first access in each period only goes into a Bloom filter (the doorkeeper), so the one-hit wonders
+ * of a scan don't inflate the counters that popular keys share with them.
+ * <p>
+ * See {@link util.CountMinSketch} for exact-bounded counting of arbitrary items.
+ */
+class FrequencySketch {
+	static final int MAX_COUNT = 15;
+	private static final int DEPTH = 4;
+
+	private final byte[] table; // DEPTH rows of width counters, row-major
+	private final long[] doorkeeper; // bloom filter of keys seen once since the last halving
+	private final int doorkeeperMask;
+	private final int width; // power of 2
+	private final int sampleSize;
+	private int additions = 0; // since the last halving
+
+	/**
+	 * @param expectedKeys roughly the number of keys worth tracking, eg. a cache's capacity
+	 */
+	FrequencySketch(int expectedKeys) {
+		int w = Integer.highestOneBit(Math.max(16, Math.min(1 << 22, expectedKeys)) * 2 - 1);
+		this.width = w;
+		this.table = new byte[DEPTH * w];
+		this.sampleSize = 10 * w;
+		int doorkeeperBits = Integer.highestOneBit(sampleSize) * 8;
+		this.doorkeeper = new long[doorkeeperBits / 64];
+		this.doorkeeperMask = doorkeeperBits - 1;
+	}
+
+	/**
+	 * Estimated recent accesses of key, between 0 and MAX_COUNT.
+	 * O(1) time.
+	 */
+	int frequency(long key) {
+		long hash = spread(key);
+		int estimate = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, table[index(hash, row)]);
+		}
+		return Math.min(MAX_COUNT, estimate + (doorkeeperContains(hash) ? 1 : 0));
+	}
+
+	/**
+	 * Records an access to key, halving every counter (and clearing the doorkeeper)
+	 * once sampleSize accesses have been recorded.
+	 * O(1) time, amortized O(1) for the halving.
+	 */
+	void increment(long key) {
+		long hash = spread(key);
+		if (++additions == sampleSize) {
+			age();
+		}
+		if (!doorkeeperContains(hash)) {
+			doorkeeperAdd(hash);
+			return;
+		}
+		int estimate = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, table[index(hash, row)]);
+		}
+		if (estimate == MAX_COUNT) {
+			return;
+		}
+		for (int row = 0; row < DEPTH; row++) { // conservative update
+			int i = index(hash, row);
+			if (table[i] == estimate) {
+				table[i]++;
+			}
+		}
+	}
+
+	private boolean doorkeeperContains(long hash) {
+		for (int probe = 0; probe < 3; probe++) {
+			int bit = doorkeeperBit(hash, probe);
+			if ((doorkeeper[bit >>> 6] & (1L << bit)) == 0) return false;
+		}
+		return true;
+	}
+
+	private void doorkeeperAdd(long hash) {
+		for (int probe = 0; probe < 3; probe++) {
+			int bit = doorkeeperBit(hash, probe);
+			doorkeeper[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	// double hashing like index, with the halves swapped so bits don't line up with counters
+	private int doorkeeperBit(long hash, int probe) {
+		int h = (int) (hash >>> 32) + probe * ((int) hash | 1);
+		return h & doorkeeperMask;
+	}
+
+	private void age() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] >>= 1;
+		}
+		Arrays.fill(doorkeeper, 0);
+		additions = 0;
+	}
+
+	// double hashing: row i probes h1 + i * h2, from the two halves of one well-mixed hash
+	private int index(long hash, int row) {
+		int h = (int) hash + row * ((int) (hash >>> 32) | 1);
+		return row * width + (h & (width - 1));
+	}
+
+	private static long spread(long key) {
+		long h = key * 0xBF58476D1CE4E5B9L; // splitmix64 finalizer
+		h ^= h >>> 31;
+		h *= 0x94D049BB133111EBL;
+		return h ^ (h >>> 29);
+	}
+}
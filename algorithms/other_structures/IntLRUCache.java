@@ -0,0 +1,143 @@
+package other_structures;
+
+import java.util.Scanner;
+
+/**
+ * {@link LRUCache} without objects: same get/put/useOrder contract, but keys, values and the recency list's
+ * links live in preallocated int arrays indexed by slot, looked up through a {@link SlotIndex}.
+ * <p>
+ * Nothing is boxed and no node is allocated per entry, so once constructed, get and put allocate nothing,
+ * and the whole cache is a handful of flat arrays instead of objects scattered across the heap.
+ * An evicted entry's slot is reused by the entry replacing it.
+ */
+public class IntLRUCache {
+	private static final int NONE = -1;
+
+	private final int[] keys;
+	private final int[] values;
+	private final int[] newer; // slot of the next newer entry, NONE for the newest
+	private final int[] older; // slot of the next older entry, NONE for the oldest
+	private final SlotIndex store;
+	private int newest = NONE;
+	private int oldest = NONE;
+	private int size = 0;
+	public final int cap;
+
+	public IntLRUCache(int capacity) {
+		cap = capacity;
+		int slots = Math.max(0, capacity);
+		keys = new int[slots];
+		values = new int[slots];
+		newer = new int[slots];
+		older = new int[slots];
+		store = new SlotIndex(slots);
+	}
+
+	public String useOrder() {
+		if (newest == NONE) {
+			return "EMPTY";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int slot = newest; slot != NONE; slot = older[slot]) {
+			sb.append(keys[slot]).append(" < ");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return -1 if key is not cached
+	 * O(1) time, allocation-free.
+	 */
+	public int get(int key) {
+		if (cap <= 0) return -1;
+		int slot = store.get(key);
+		if (slot == NONE) {
+			return -1;
+		}
+		makeMostRecent(slot);
+		return values[slot];
+	}
+
+	/**
+	 * O(1) time, allocation-free.
+	 */
+	public void put(int key, int value) {
+		if (cap <= 0) return;
+		int slot = store.get(key);
+		if (slot == NONE) { // not found, need to expand
+			if (size == cap) { // reuse the oldest entry's slot
+				slot = oldest;
+				unlink(slot);
+				store.remove(keys[slot]);
+			} else {
+				slot = size++;
+			}
+			keys[slot] = key;
+			linkNewest(slot);
+			store.put(key, slot);
+		} else {
+			makeMostRecent(slot);
+		}
+		values[slot] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private void makeMostRecent(int slot) {
+		if (newest == slot) {
+			return;
+		}
+		unlink(slot);
+		linkNewest(slot);
+	}
+
+	private void linkNewest(int slot) {
+		newer[slot] = NONE;
+		older[slot] = newest;
+		if (newest != NONE) {
+			newer[newest] = slot;
+		}
+		newest = slot;
+		if (oldest == NONE) {
+			oldest = slot;
+		}
+	}
+
+	private void unlink(int slot) {
+		int newerSlot = newer[slot];
+		int olderSlot = older[slot];
+		if (newerSlot != NONE) {
+			older[newerSlot] = olderSlot;
+		} else {
+			newest = olderSlot;
+		}
+		if (olderSlot != NONE) {
+			newer[olderSlot] = newerSlot;
+		} else {
+			oldest = newerSlot;
+		}
+	}
+
+	public static void main(String... args) {
+		Scanner in = new Scanner(System.in);
+		IntLRUCache cache = new IntLRUCache(in.nextInt());
+		in.nextLine();
+		System.out.println(cache.useOrder());
+		String input = in.nextLine();
+		while (!input.equals("quit")) {
+			String[] tokens = input.split(" ");
+			switch (tokens[0]) {
+				case "put":
+					cache.put(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+					break;
+				case "get":
+					System.out.println(cache.get(Integer.parseInt(tokens[1])));
+					break;
+			}
+			System.out.println(cache.useOrder());
+			input = in.nextLine();
+		}
+	}
+}
@@ -1,8 +1,15 @@
 package other_structures;
+import util.LatencyHistogram;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class LRUCache {
+	/**
+	 * With stats on, one get in this many is timed: enough for stable percentiles, without paying
+	 * for two clock reads on every call.
+	 */
+	public static final int LATENCY_SAMPLE_RATE = 16;
 
 	class ListNode {
 		int key;
@@ -31,9 +38,39 @@ public class LRUCache {
 	int size = 0;
 	int cap;
 
+	// stats, only kept if recordStats
+	final boolean recordStats;
+	long hits = 0;
+	long misses = 0;
+	long evictions = 0;
+	long updates = 0;
+	int getsUntilSample = LATENCY_SAMPLE_RATE;
+	final LatencyHistogram getLatency;
+
 	public LRUCache(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * @param recordStats if true, counts hits, misses, evictions and updates, and samples get latency,
+	 *                    readable through {@link #stats()}
+	 */
+	public LRUCache(int capacity, boolean recordStats) {
 		store = new HashMap<>(capacity);
 		cap = capacity;
+		this.recordStats = recordStats;
+		this.getLatency = recordStats ? new LatencyHistogram() : null;
+	}
+
+	/**
+	 * Snapshot of the counters so far. All zero if not recording stats.
+	 */
+	public CacheStats stats() {
+		if (!recordStats) {
+			return new CacheStats(0, 0, 0, 0, 0, 0, 0, 0, 0);
+		}
+		return new CacheStats(hits, misses, evictions, updates, getLatency.count(), getLatency.mean(),
+						getLatency.percentile(50), getLatency.percentile(99), getLatency.max());
 	}
 
 	public String useOrder() {
@@ -51,12 +88,24 @@ public class LRUCache {
 	}
 
 	public int get(int key) {
-		if (cap <= 0) return -1;
-		if (store.containsKey(key)) {
-			ListNode node = store.get(key);
+		if (recordStats && --getsUntilSample == 0) {
+			getsUntilSample = LATENCY_SAMPLE_RATE;
+			long start = System.nanoTime();
+			int value = lookup(key);
+			getLatency.record(System.nanoTime() - start);
+			return value;
+		}
+		return lookup(key);
+	}
+
+	private int lookup(int key) {
+		ListNode node = cap <= 0 ? null : store.get(key);
+		if (node != null) {
 			makeMostRecent(node);
+			if (recordStats) hits++;
 			return node.value;
 		} else {
+			if (recordStats) misses++;
 			return -1;
 		}
 	}
@@ -93,6 +142,7 @@ public class LRUCache {
 			}
 			store.remove(node.key);
 			size--;
+			if (recordStats) evictions++;
 		}
 	}
 
@@ -110,11 +160,12 @@ public class LRUCache {
 		} else {
 			makeMostRecent(node);
 			node.value = value; // update value
+			if (recordStats) updates++;
 		}
 	}
 	public static void main(String... args) {
 		Scanner in = new Scanner(System.in);
-		LRUCache cache = new LRUCache(in.nextInt());
+		LRUCache cache = new LRUCache(in.nextInt(), true);
 		in.nextLine();
 		System.out.println(cache.useOrder());
 		String input = in.nextLine();
@@ -127,6 +178,9 @@ public class LRUCache {
 				case "get":
 					System.out.println(cache.get(Integer.parseInt(tokens[1])));
 					break;
+				case "stats":
+					System.out.println(cache.stats());
+					break;
 			}
 
 			System.out.println(cache.useOrder());
@@ -0,0 +1,280 @@
+package other_structures;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Read-through, thread-safe {@link WeightedLRUCache}: get never misses, it loads missing values with a
+ * {@link CacheLoader}, caches and returns them, so callers no longer check for a sentinel and fill the cache.
+ * <p>
+ * Concurrent misses on one key are coalesced: the first caller loads, the others wait for its result
+ * (or its exception) instead of loading the same value again. Loads run outside the cache's lock,
+ * so a slow load only holds up callers of that key. getAll loads all of its missing keys in a single
+ * {@link CacheLoader#loadAll} call.
+ * <p>
+ * Null values are never cached: a loader returning null makes get return null, and the next get loads again.
+ * A loader must not get its own key from the same cache, which would wait for itself forever.
+ * A put racing with a load of the same key may be overwritten by the loaded value.
+ *
+ * @param <K> must be equals-immutable, otherwise behaviour is undefined.
+ */
+public class LoadingLRUCache<K, V> {
+	private final WeightedLRUCache<K, V> cache; // guarded by itself
+	private final CacheLoader<? super K, V> loader;
+	private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>(); // in flight
+
+	/**
+	 * Holds up to capacity entries, which never expire
+	 */
+	public LoadingLRUCache(long capacity, CacheLoader<? super K, V> loader) {
+		this(new WeightedLRUCache<>(capacity), loader);
+	}
+
+	/**
+	 * Loads into cache, configured with any weigher, expiry and removal listener, which must not be
+	 * used directly from then on. Expired entries are reloaded on their next get.
+	 */
+	public LoadingLRUCache(WeightedLRUCache<K, V> cache, CacheLoader<? super K, V> loader) {
+		this.cache = cache;
+		this.loader = loader;
+	}
+
+	/**
+	 * Cached value of key, loading it on a miss.
+	 *
+	 * @return null only if the loader has no value for key
+	 * O(1) time, plus one load on a miss.
+	 */
+	public V get(K key) {
+		return computeIfAbsent(key, loader::load);
+	}
+
+	/**
+	 * Cached value of key, or if missing, mappingFunction's value for it, cached unless null.
+	 * While one caller computes a key, others asking for the same key wait for that result.
+	 * O(1) time, plus one computation on a miss.
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		V value = getIfPresent(key);
+		if (value != null) {
+			return value;
+		}
+		CompletableFuture<V> own = new CompletableFuture<>();
+		CompletableFuture<V> inFlight = loading.putIfAbsent(key, own);
+		if (inFlight != null) {
+			return await(inFlight);
+		}
+		try {
+			value = getIfPresent(key); // a load that finished since our miss
+			if (value == null) {
+				value = mappingFunction.apply(key);
+				if (value != null) {
+					synchronized (cache) {
+						cache.put(key, value);
+					}
+				}
+			}
+			own.complete(value);
+			return value;
+		} catch (Throwable e) { // including checked exceptions thrown sneakily, which would otherwise strand waiters
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			loading.remove(key, own);
+		}
+	}
+
+	/**
+	 * Values of keys, loading every missing key not already being loaded with one
+	 * {@link CacheLoader#loadAll} call, and waiting for those that are.
+	 *
+	 * @return values in the order of keys, without duplicates or keys the loader has no value for
+	 * O(n) time, plus at most one batch load.
+	 */
+	public Map<K, V> getAll(Iterable<? extends K> keys) {
+		Set<K> requested = new LinkedHashSet<>();
+		keys.forEach(requested::add);
+		Map<K, V> found = new LinkedHashMap<>();
+		Map<K, CompletableFuture<V>> claimed = new LinkedHashMap<>(); // keys this call loads
+		Map<K, CompletableFuture<V>> awaited = new LinkedHashMap<>(); // keys other callers are loading
+		for (K key : requested) {
+			V value = getIfPresent(key);
+			if (value != null) {
+				found.put(key, value);
+				continue;
+			}
+			CompletableFuture<V> own = new CompletableFuture<>();
+			CompletableFuture<V> inFlight = loading.putIfAbsent(key, own);
+			if (inFlight != null) {
+				awaited.put(key, inFlight);
+			} else {
+				claimed.put(key, own);
+			}
+		}
+		if (!claimed.isEmpty()) {
+			loadClaimed(claimed, found);
+		}
+		for (Map.Entry<K, CompletableFuture<V>> entry : awaited.entrySet()) {
+			V value = await(entry.getValue());
+			if (value != null) {
+				found.put(entry.getKey(), value);
+			}
+		}
+		Map<K, V> result = new LinkedHashMap<>();
+		for (K key : requested) {
+			V value = found.get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return null if key is not cached (or has expired); never loads
+	 * O(1) time.
+	 */
+	public V getIfPresent(K key) {
+		synchronized (cache) {
+			return cache.get(key);
+		}
+	}
+
+	/**
+	 * O(1) time, plus O(1) per entry evicted.
+	 */
+	public void put(K key, V value) {
+		if (value == null) throw new IllegalArgumentException("Null value for " + key);
+		synchronized (cache) {
+			cache.put(key, value);
+		}
+	}
+
+	/**
+	 * O(n) time, plus O(1) per entry evicted.
+	 */
+	public void putAll(Map<? extends K, ? extends V> entries) {
+		if (entries.containsValue(null)) throw new IllegalArgumentException("Null value");
+		synchronized (cache) {
+			entries.forEach(cache::put);
+		}
+	}
+
+	/**
+	 * Removes key, so its next get loads it again.
+	 * O(1) time.
+	 */
+	public void invalidate(K key) {
+		synchronized (cache) {
+			cache.remove(key);
+		}
+	}
+
+	public int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	public String useOrder() {
+		synchronized (cache) {
+			return cache.useOrder();
+		}
+	}
+
+	// loads the keys this call claimed in one batch, then releases them to their waiters
+	private void loadClaimed(Map<K, CompletableFuture<V>> claimed, Map<K, V> found) {
+		try {
+			Set<K> missing = new LinkedHashSet<>();
+			for (Map.Entry<K, CompletableFuture<V>> entry : claimed.entrySet()) {
+				V value = getIfPresent(entry.getKey()); // a load that finished since our miss
+				if (value != null) {
+					found.put(entry.getKey(), value);
+					entry.getValue().complete(value);
+				} else {
+					missing.add(entry.getKey());
+				}
+			}
+			if (missing.isEmpty()) {
+				return;
+			}
+			Map<? super K, V> loaded = loader.loadAll(Collections.unmodifiableSet(missing));
+			synchronized (cache) {
+				for (K key : missing) { // extra keys the loader returned are ignored
+					V value = loaded.get(key);
+					if (value != null) {
+						cache.put(key, value);
+					}
+				}
+			}
+			for (K key : missing) {
+				V value = loaded.get(key);
+				if (value != null) {
+					found.put(key, value);
+				}
+				claimed.get(key).complete(value);
+			}
+		} catch (Throwable e) { // including checked exceptions thrown sneakily, which would otherwise strand waiters
+			for (CompletableFuture<V> future : claimed.values()) {
+				future.completeExceptionally(e); // no-op for those already complete
+			}
+			throw e;
+		} finally {
+			claimed.forEach(loading::remove);
+		}
+	}
+
+	// result of another caller's load, rethrowing its unchecked exception as is, a checked one in the CompletionException
+	private static <V> V await(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw e;
+		}
+	}
+
+	public static void main(String... args) throws InterruptedException {
+		AtomicInteger loads = new AtomicInteger();
+		LoadingLRUCache<Integer, String> cache = new LoadingLRUCache<>(3, new CacheLoader<Integer, String>() {
+			@Override
+			public String load(Integer key) {
+				loads.incrementAndGet();
+				try {
+					Thread.sleep(100); // a slow backend
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "v" + key;
+			}
+
+			@Override
+			public Map<Integer, String> loadAll(Set<? extends Integer> keys) {
+				System.out.println("batch load " + keys);
+				return CacheLoader.super.loadAll(keys);
+			}
+		});
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> System.out.println(Thread.currentThread().getName() + " got " + cache.get(1)));
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		System.out.println("loads for " + threads.length + " concurrent gets: " + loads.get());
+		System.out.println(cache.getAll(List.of(1, 2, 3, 2)));
+		System.out.println(cache.useOrder());
+	}
+}
@@ -0,0 +1,362 @@
+package other_structures;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * LRU cache of serialized values stored outside the Java heap, so caching many gigabytes adds nothing for the
+ * garbage collector to trace or copy.
+ * <p>
+ * Memory comes in slabs, direct ByteBuffers of slabSize bytes allocated on demand up to maxBytes. Each slab is
+ * assigned to a size class and carved into equal chunks, sizes growing by about 25% per class, and each entry
+ * takes the smallest chunk that fits its value plus a small header, wasting at most about a fifth of it.
+ * Every entry's key, length and recency links live in its chunk's header, off-heap.
+ * <p>
+ * Entries of all size classes share one {@link LRUCache}-style recency list. Once the budget is used up and the
+ * size class a put needs has no free chunk, the least recently used entry is evicted. If it belongs to another
+ * class, its whole slab is handed over to the class in need, evicting the rest of the slab's entries too, however
+ * recently used: memory only moves between classes a slab at a time. So eviction follows LRUCache's order
+ * to the granularity of a slab, and a change in value sizes cannot starve a class of memory.
+ * <p>
+ * On-heap there is only a {@link SlotIndex} from key to chunk, about 24 bytes per entry in two primitive arrays,
+ * whatever the values' size, plus a few small per-class and per-slab arrays.
+ * Direct memory is capped by -XX:MaxDirectMemorySize (by default the max heap size), which must allow maxBytes.
+ * Slabs are only released when the cache itself is garbage collected. Not thread-safe.
+ */
+public class OffHeapCache {
+	public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+	public static final long MAX_BYTES = 1L << 35;
+	static final int MIN_CHUNK = 64;
+	private static final int NONE = -1;
+	private static final int FREE = -1; // length of a free chunk
+	private static final int INITIAL_INDEX_CAPACITY = 1 << 10;
+
+	// chunk header layout
+	private static final int KEY = 0;
+	private static final int LENGTH = 8;
+	private static final int NEWER = 12; // in a free chunk, links the free list instead
+	private static final int OLDER = 16;
+	static final int HEADER = 20;
+
+	public final long maxBytes;
+	public final int slabSize;
+	private final int chunkBits; // a chunk's handle is slab << chunkBits | chunk within the slab
+	private final ByteBuffer[] slabs;
+	private final int[] slabClass;
+	private int slabsAllocated = 0;
+
+	// per size class
+	private final int[] chunkSize; // ascending
+	private final int[] chunksPerSlab;
+	private final int[] freeHead;
+
+	// recency list of all entries, by handle
+	private int newest = NONE;
+	private int oldest = NONE;
+
+	private SlotIndex index = new SlotIndex(INITIAL_INDEX_CAPACITY);
+	private int indexCapacity = INITIAL_INDEX_CAPACITY;
+	private int size = 0;
+
+	public OffHeapCache(long maxBytes) {
+		this(maxBytes, DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * @param maxBytes at least slabSize, at most {@link #MAX_BYTES}; rounded down to whole slabs
+	 * @param slabSize power of 2, at least 4096; the largest value that fits is slabSize - {@link #HEADER}
+	 */
+	public OffHeapCache(long maxBytes, int slabSize) {
+		if (slabSize < 1 << 12 || Integer.bitCount(slabSize) != 1) throw new IllegalArgumentException("Slab size: " + slabSize);
+		if (maxBytes < slabSize || maxBytes > MAX_BYTES) throw new IllegalArgumentException("Max bytes: " + maxBytes);
+		this.maxBytes = maxBytes;
+		this.slabSize = slabSize;
+		this.chunkBits = Integer.numberOfTrailingZeros(slabSize / MIN_CHUNK);
+		int maxSlabs = (int) (maxBytes / slabSize);
+		this.slabs = new ByteBuffer[maxSlabs];
+		this.slabClass = new int[maxSlabs];
+
+		int classes = 1;
+		for (long size = MIN_CHUNK; size < slabSize; size = nextChunkSize(size)) {
+			classes++;
+		}
+		chunkSize = new int[classes];
+		chunkSize[0] = MIN_CHUNK;
+		for (int c = 1; c < classes; c++) {
+			chunkSize[c] = (int) Math.min(slabSize, nextChunkSize(chunkSize[c - 1]));
+		}
+		chunksPerSlab = new int[classes];
+		for (int c = 0; c < classes; c++) {
+			chunksPerSlab[c] = slabSize / chunkSize[c];
+		}
+		freeHead = new int[classes];
+		Arrays.fill(freeHead, NONE);
+	}
+
+	/**
+	 * @return a copy of key's value, null if key is not cached
+	 * O(1) time, plus O(value length) to copy it.
+	 */
+	public byte[] get(long key) {
+		int handle = index.get(key);
+		if (handle == NONE) {
+			return null;
+		}
+		makeMostRecent(handle);
+		ByteBuffer slab = slabOf(handle);
+		int offset = offsetOf(handle);
+		byte[] value = new byte[slab.getInt(offset + LENGTH)];
+		slab.get(offset + HEADER, value);
+		return value;
+	}
+
+	/**
+	 * Copies value off-heap, evicting the least recently used entry (or its slab) if the memory budget is used up.
+	 * O(1) time, plus O(value length) to copy it, O(slab's chunks) to take a slab from another size class,
+	 * and amortized O(1) to grow the index.
+	 *
+	 * @throws IllegalArgumentException if value doesn't fit in a slab
+	 */
+	public void put(long key, byte[] value) {
+		if (value.length > slabSize - HEADER) throw new IllegalArgumentException("Value too large: " + value.length);
+		int sizeClass = classFor(HEADER + value.length);
+		int handle = index.get(key);
+		if (handle != NONE && classOf(handle) != sizeClass) { // no longer fits its chunk, or wastes it
+			remove(key);
+			handle = NONE;
+		}
+		if (handle == NONE) {
+			handle = allocate(sizeClass);
+			if (index.size() == indexCapacity) {
+				growIndex();
+			}
+			index.put(key, handle);
+			slabOf(handle).putLong(offsetOf(handle) + KEY, key);
+			linkNewest(handle);
+			size++;
+		} else {
+			makeMostRecent(handle);
+		}
+		ByteBuffer slab = slabOf(handle);
+		int offset = offsetOf(handle);
+		slab.putInt(offset + LENGTH, value.length);
+		slab.put(offset + HEADER, value);
+	}
+
+	/**
+	 * @return false if key was not cached
+	 * O(1) time.
+	 */
+	public boolean remove(long key) {
+		int handle = index.remove(key);
+		if (handle == NONE) {
+			return false;
+		}
+		unlink(handle);
+		pushFree(classOf(handle), handle);
+		size--;
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Direct memory allocated so far, at most maxBytes.
+	 */
+	public long offHeapBytes() {
+		return (long) slabsAllocated * slabSize;
+	}
+
+	/**
+	 * Keys with their chunk size, most recently used first.
+	 */
+	public String useOrder() {
+		if (newest == NONE) {
+			return "EMPTY";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int handle = newest; handle != NONE; handle = link(handle, OLDER)) {
+			sb.append(slabOf(handle).getLong(offsetOf(handle) + KEY))
+							.append(" (").append(chunkSize[classOf(handle)]).append("B) < ");
+		}
+		return sb.toString();
+	}
+
+	// a free chunk of sizeClass: from its free list, a new slab, or by evicting the least recently used entry,
+	// taking over its slab if it is of another class
+	private int allocate(int sizeClass) {
+		if (freeHead[sizeClass] == NONE) {
+			if (slabsAllocated < slabs.length) {
+				int slab = slabsAllocated++;
+				slabs[slab] = ByteBuffer.allocateDirect(slabSize).order(ByteOrder.nativeOrder());
+				carve(slab, sizeClass);
+			} else if (oldest == NONE) { // nothing to evict, so every slab is free, but held by other classes
+				int donor = 0;
+				while (donor == sizeClass || freeHead[donor] == NONE) {
+					donor++;
+				}
+				reassignSlab(freeHead[donor] >>> chunkBits, sizeClass);
+			} else if (classOf(oldest) == sizeClass) {
+				remove(slabOf(oldest).getLong(offsetOf(oldest) + KEY));
+			} else {
+				reassignSlab(oldest >>> chunkBits, sizeClass);
+			}
+		}
+		int handle = freeHead[sizeClass];
+		removeFree(sizeClass, handle);
+		return handle;
+	}
+
+	// evicts every entry of slab and carves it for sizeClass
+	private void reassignSlab(int slab, int sizeClass) {
+		int donor = slabClass[slab];
+		ByteBuffer buffer = slabs[slab];
+		for (int chunk = 0; chunk < chunksPerSlab[donor]; chunk++) {
+			int handle = slab << chunkBits | chunk;
+			int offset = chunk * chunkSize[donor];
+			if (buffer.getInt(offset + LENGTH) == FREE) {
+				removeFree(donor, handle);
+			} else {
+				index.remove(buffer.getLong(offset + KEY));
+				unlink(handle);
+				size--;
+			}
+		}
+		carve(slab, sizeClass);
+	}
+
+	private void carve(int slab, int sizeClass) {
+		slabClass[slab] = sizeClass;
+		for (int chunk = chunksPerSlab[sizeClass] - 1; chunk >= 0; chunk--) { // so chunks are handed out in address order
+			pushFree(sizeClass, slab << chunkBits | chunk);
+		}
+	}
+
+	// rebuilds the index twice as large, from the recency list
+	private void growIndex() {
+		indexCapacity *= 2;
+		index = new SlotIndex(indexCapacity);
+		for (int handle = newest; handle != NONE; handle = link(handle, OLDER)) {
+			index.put(slabOf(handle).getLong(offsetOf(handle) + KEY), handle);
+		}
+	}
+
+	private void makeMostRecent(int handle) {
+		if (newest == handle) {
+			return;
+		}
+		unlink(handle);
+		linkNewest(handle);
+	}
+
+	private void linkNewest(int handle) {
+		setLink(handle, NEWER, NONE);
+		setLink(handle, OLDER, newest);
+		if (newest != NONE) {
+			setLink(newest, NEWER, handle);
+		}
+		newest = handle;
+		if (oldest == NONE) {
+			oldest = handle;
+		}
+	}
+
+	private void unlink(int handle) {
+		int newerHandle = link(handle, NEWER);
+		int olderHandle = link(handle, OLDER);
+		if (newerHandle != NONE) {
+			setLink(newerHandle, OLDER, olderHandle);
+		} else {
+			newest = olderHandle;
+		}
+		if (olderHandle != NONE) {
+			setLink(olderHandle, NEWER, newerHandle);
+		} else {
+			oldest = newerHandle;
+		}
+	}
+
+	// the free list is doubly linked too, so reassignSlab can take chunks out of its middle
+	private void pushFree(int sizeClass, int handle) {
+		slabOf(handle).putInt(offsetOf(handle) + LENGTH, FREE);
+		setLink(handle, NEWER, NONE);
+		setLink(handle, OLDER, freeHead[sizeClass]);
+		if (freeHead[sizeClass] != NONE) {
+			setLink(freeHead[sizeClass], NEWER, handle);
+		}
+		freeHead[sizeClass] = handle;
+	}
+
+	private void removeFree(int sizeClass, int handle) {
+		int newerHandle = link(handle, NEWER);
+		int olderHandle = link(handle, OLDER);
+		if (newerHandle != NONE) {
+			setLink(newerHandle, OLDER, olderHandle);
+		} else {
+			freeHead[sizeClass] = olderHandle;
+		}
+		if (olderHandle != NONE) {
+			setLink(olderHandle, NEWER, newerHandle);
+		}
+	}
+
+	private int link(int handle, int field) {
+		return slabOf(handle).getInt(offsetOf(handle) + field);
+	}
+
+	private void setLink(int handle, int field, int target) {
+		slabOf(handle).putInt(offsetOf(handle) + field, target);
+	}
+
+	private ByteBuffer slabOf(int handle) {
+		return slabs[handle >>> chunkBits];
+	}
+
+	private int classOf(int handle) {
+		return slabClass[handle >>> chunkBits];
+	}
+
+	private int offsetOf(int handle) {
+		return (handle & ((1 << chunkBits) - 1)) * chunkSize[classOf(handle)];
+	}
+
+	// smallest size class whose chunks hold bytes
+	private int classFor(int bytes) {
+		int c = Arrays.binarySearch(chunkSize, bytes);
+		return c >= 0 ? c : -c - 1;
+	}
+
+	// about 25% larger, rounded up to a multiple of 8
+	private static long nextChunkSize(long size) {
+		return (size + size / 4 + 7) & ~7L;
+	}
+
+	public static void main(String... args) {
+		OffHeapCache cache = new OffHeapCache(1 << 16, 1 << 12);
+		cache.put(1, "small".getBytes());
+		cache.put(2, new byte[100]);
+		cache.put(3, "tiny".getBytes());
+		cache.get(1);
+		System.out.println(cache.useOrder());
+
+		// heap use stays flat while off-heap use grows with the values cached
+		long budget = 1L << 28;
+		OffHeapCache big = new OffHeapCache(budget);
+		Runtime runtime = Runtime.getRuntime();
+		Random random = new Random(1);
+		byte[] value = new byte[4000];
+		for (int step = 1; step <= 4; step++) {
+			for (int i = 0; i < budget / 4 / value.length; i++) {
+				random.nextBytes(value);
+				big.put(random.nextLong(), value);
+			}
+			System.gc();
+			System.out.printf("%d entries, %d MB off-heap, %d MB heap used%n", big.size(),
+							big.offHeapBytes() >> 20, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package other_structures;
+
+/**
+ * Why an entry left a cache.
+ */
+public enum RemovalCause {
+	/**
+	 * Removed by the caller
+	 */
+	EXPLICIT,
+	/**
+	 * Value overwritten by a put for the same key
+	 */
+	REPLACED,
+	/**
+	 * Time to live ran out
+	 */
+	EXPIRED,
+	/**
+	 * Evicted to keep the cache within its bounds
+	 */
+	SIZE;
+
+	/**
+	 * True if the cache removed the entry on its own, rather than on a caller's request
+	 */
+	public boolean wasEvicted() {
+		return this == EXPIRED || this == SIZE;
+	}
+}
@@ -0,0 +1,9 @@
+package other_structures;
+
+/**
+ * Notified of every entry leaving a cache, on the thread that caused the removal.
+ */
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+	void onRemoval(K key, V value, RemovalCause cause);
+}
@@ -0,0 +1,103 @@
+package other_structures;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size open-addressing hash map from long keys to int slots, for caches that keep their entries
+ * in flat arrays. Linear probing over parallel primitive arrays, so lookups allocate nothing and touch
+ * one or two cache lines. Removal shifts later probes back instead of leaving tombstones,
+ * so lookups stay short however many keys come and go.
+ * <p>
+ * Holds at most the number of entries it was created for; the table stays at most half full.
+ */
+class SlotIndex {
+	private static final int EMPTY = -1;
+
+	private final long[] keys;
+	private final int[] slots; // EMPTY if the bucket is free
+	private final int mask;
+	private final int shift; // of the hash, to its top log2(buckets) bits
+	private final int maxEntries;
+	private int size = 0;
+
+	SlotIndex(int maxEntries) {
+		if (maxEntries < 0 || maxEntries > 1 << 29) throw new IllegalArgumentException();
+		int buckets = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) * 2; // load factor <= 0.5
+		this.keys = new long[buckets];
+		this.slots = new int[buckets];
+		Arrays.fill(slots, EMPTY);
+		this.mask = buckets - 1;
+		this.shift = 64 - Integer.numberOfTrailingZeros(buckets);
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * @return slot of key, or -1 if absent
+	 * O(1) expected time.
+	 */
+	int get(long key) {
+		for (int bucket = bucketOf(key); ; bucket = (bucket + 1) & mask) {
+			int slot = slots[bucket];
+			if (slot == EMPTY || keys[bucket] == key) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * Maps key to slot, replacing any previous slot.
+	 * O(1) expected time.
+	 *
+	 * @throws IllegalStateException if full and key is new
+	 */
+	void put(long key, int slot) {
+		if (slot < 0) throw new IllegalArgumentException("Negative slot: " + slot);
+		int bucket = bucketOf(key);
+		while (slots[bucket] != EMPTY && keys[bucket] != key) {
+			bucket = (bucket + 1) & mask;
+		}
+		if (slots[bucket] == EMPTY) {
+			if (size == maxEntries) throw new IllegalStateException("Index full: " + maxEntries);
+			size++;
+		}
+		keys[bucket] = key;
+		slots[bucket] = slot;
+	}
+
+	/**
+	 * @return slot key was mapped to, or -1 if absent
+	 * O(1) expected time.
+	 */
+	int remove(long key) {
+		int bucket = bucketOf(key);
+		while (slots[bucket] != EMPTY && keys[bucket] != key) {
+			bucket = (bucket + 1) & mask;
+		}
+		int removed = slots[bucket];
+		if (removed == EMPTY) {
+			return EMPTY;
+		}
+		size--;
+		// shift back any later entry of the probe run whose home bucket is at or before the hole
+		int hole = bucket;
+		for (int next = (hole + 1) & mask; slots[next] != EMPTY; next = (next + 1) & mask) {
+			int home = bucketOf(keys[next]);
+			// entry stays only if its home lies cyclically within (hole, next]
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				slots[hole] = slots[next];
+				hole = next;
+			}
+		}
+		slots[hole] = EMPTY;
+		return removed;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private int bucketOf(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift); // Fibonacci hashing, top bits are the best mixed
+	}
+}
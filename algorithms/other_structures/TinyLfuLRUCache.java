@@ -0,0 +1,118 @@
+package other_structures;
+
+import java.util.Scanner;
+
+/**
+ * {@link LRUCache} behind a W-TinyLFU admission filter, with the same get/put/useOrder contract.
+ * <p>
+ * New entries first go into a small window LRU (about 1% of capacity), so bursts of new keys still get hits.
+ * When the window overflows, its least recently used entry becomes a candidate for the main LRU,
+ * which holds the rest of the capacity. If the main LRU is full, the candidate only replaces the entry
+ * invalidateOldest would evict there if a {@link FrequencySketch} of recent accesses rates it more popular;
+ * otherwise the candidate is dropped. Popularity counts gets only, so a read-through miss followed by its put
+ * counts once.
+ * <p>
+ * A scan over cold keys therefore only churns the window, leaving the frequently used working set in the
+ * main LRU, where plain LRU would have flushed all of it. Not thread-safe.
+ */
+public class TinyLfuLRUCache {
+	private final LRUCache window;
+	private final LRUCache main;
+	private final FrequencySketch sketch;
+	public final int cap;
+
+	public TinyLfuLRUCache(int capacity) {
+		cap = capacity;
+		int windowCapacity = capacity <= 0 ? 0 : Math.max(1, capacity / 100);
+		window = new LRUCache(windowCapacity);
+		main = new LRUCache(capacity - windowCapacity);
+		sketch = new FrequencySketch(Math.max(0, capacity));
+	}
+
+	public String useOrder() {
+		return "window: " + window.useOrder() + " | main: " + main.useOrder();
+	}
+
+	/**
+	 * @return -1 if key is not cached
+	 * O(1) time.
+	 */
+	public int get(int key) {
+		if (cap <= 0) return -1;
+		sketch.increment(key);
+		LRUCache.ListNode node = find(window, key);
+		if (node == null) {
+			node = find(main, key);
+		}
+		return node == null ? -1 : node.value;
+	}
+
+	/**
+	 * O(1) time.
+	 */
+	public void put(int key, int value) {
+		if (cap <= 0) return;
+		LRUCache.ListNode node = find(window, key);
+		if (node == null) {
+			node = find(main, key);
+		}
+		if (node != null) {
+			node.value = value;
+			return;
+		}
+		if (window.size == window.cap) {
+			LRUCache.ListNode candidate = window.oldest;
+			window.invalidateOldest();
+			admit(candidate.key, candidate.value);
+		}
+		window.put(key, value);
+	}
+
+	public int size() {
+		return window.size + main.size;
+	}
+
+	// node of key in region, made its most recent; null if absent. One map lookup, unlike LRUCache.get
+	private static LRUCache.ListNode find(LRUCache region, int key) {
+		LRUCache.ListNode node = region.store.get(key);
+		if (node != null) {
+			region.makeMostRecent(node);
+		}
+		return node;
+	}
+
+	// candidate just left the window: it takes the main LRU's victim's place only if accessed more often recently
+	private void admit(int candidateKey, int candidateValue) {
+		if (main.cap <= 0) {
+			return;
+		}
+		if (main.size == main.cap) {
+			if (sketch.frequency(candidateKey) <= sketch.frequency(main.oldest.key)) {
+				return;
+			}
+			main.invalidateOldest();
+		}
+		main.put(candidateKey, candidateValue);
+	}
+
+	public static void main(String... args) {
+		Scanner in = new Scanner(System.in);
+		TinyLfuLRUCache cache = new TinyLfuLRUCache(in.nextInt());
+		in.nextLine();
+		System.out.println(cache.useOrder());
+		String input = in.nextLine();
+		while (!input.equals("quit")) {
+			String[] tokens = input.split(" ");
+			switch (tokens[0]) {
+				case "put":
+					cache.put(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+					break;
+				case "get":
+					System.out.println(cache.get(Integer.parseInt(tokens[1])));
+					break;
+			}
+			System.out.println(cache.useOrder());
+			input = in.nextLine();
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package other_structures;
+
+/**
+ * Weight of a cache entry, such as its approximate size in bytes. Must not change while the entry is cached.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+	/**
+	 * @return non-negative weight
+	 */
+	int weigh(K key, V value);
+}
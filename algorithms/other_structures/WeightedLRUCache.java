@@ -0,0 +1,296 @@
+package other_structures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Generic {@link LRUCache}, bounded by total weight rather than entry count, with optional expiry.
+ * <p>
+ * Each entry weighs what the {@link Weigher} says (1 by default), and least recently used entries are evicted
+ * until the total fits within maxWeight. An entry heavier than maxWeight on its own is never cached.
+ * <p>
+ * Entries can expire a fixed time after they were written, set for the whole cache or per put.
+ * There is no cleanup thread: expired entries are dropped when read, and every operation also sweeps
+ * a few entries along the recency list, so expired entries that are never read again still get removed
+ * within a bounded number of operations. Time comes from a ticker, {@link System#nanoTime()} by default.
+ * <p>
+ * Every removal is reported to the {@link RemovalListener} with its cause. Not thread-safe.
+ *
+ * @param <K> must be equals-immutable, otherwise behaviour is undefined.
+ */
+public class WeightedLRUCache<K, V> {
+	private static final long NEVER = Long.MAX_VALUE;
+	private static final int SWEEP_STEPS = 2; // entries checked for expiry per operation
+
+	class ListNode {
+		final K key;
+		V value;
+		int weight;
+		long expiresAt; // ticker time, NEVER if no expiry
+		ListNode newer;
+		ListNode older;
+
+		ListNode(K key, V value, int weight, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpiredAt(long now) {
+			return now >= expiresAt;
+		}
+
+		void removeSelf() {
+			if (newer != null) newer.older = older;
+			if (older != null) older.newer = newer;
+			newer = null;
+			older = null;
+		}
+
+		@Override
+		public String toString() {
+			return "" + key + " -> " + value;
+		}
+	}
+
+	ListNode newest = null;
+	ListNode oldest = null;
+	ListNode sweepCursor = null; // next entry to check for expiry, walking from oldest to newest
+	final Map<K, ListNode> store = new HashMap<>();
+	long totalWeight = 0;
+	boolean anyExpiring = false; // once any entry was written with a time to live
+	public final long maxWeight;
+
+	private final Weigher<? super K, ? super V> weigher;
+	private final long defaultTimeToLiveNanos; // NEVER if entries don't expire by default
+	private final RemovalListener<? super K, ? super V> removalListener;
+	private final LongSupplier ticker;
+
+	/**
+	 * Holds up to capacity entries, which never expire
+	 */
+	public WeightedLRUCache(long capacity) {
+		this(capacity, (key, value) -> 1, NEVER, TimeUnit.NANOSECONDS, (key, value, cause) -> {}, System::nanoTime);
+	}
+
+	/**
+	 * @param timeToLive default time to live of entries after they are written, Long.MAX_VALUE to never expire
+	 * @param ticker     current time in nanoseconds, only ever compared with itself
+	 */
+	public WeightedLRUCache(long maxWeight, Weigher<? super K, ? super V> weigher,
+	                        long timeToLive, TimeUnit unit,
+	                        RemovalListener<? super K, ? super V> removalListener, LongSupplier ticker) {
+		if (maxWeight < 0 || timeToLive <= 0) throw new IllegalArgumentException();
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		this.defaultTimeToLiveNanos = timeToLive == NEVER ? NEVER : unit.toNanos(timeToLive);
+		this.removalListener = removalListener;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * @return null if key is not cached or has expired
+	 * O(1) time.
+	 */
+	public V get(K key) {
+		long now = ticker.getAsLong();
+		sweep(now);
+		ListNode node = store.get(key);
+		if (node == null) {
+			return null;
+		}
+		if (node.isExpiredAt(now)) {
+			remove(node, RemovalCause.EXPIRED);
+			return null;
+		}
+		makeMostRecent(node);
+		return node.value;
+	}
+
+	/**
+	 * Caches value with the default time to live.
+	 * O(1) time, plus O(1) per entry evicted.
+	 */
+	public void put(K key, V value) {
+		put(key, value, defaultTimeToLiveNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Caches value, expiring timeToLive after now. Long.MAX_VALUE never expires.
+	 * O(1) time, plus O(1) per entry evicted.
+	 */
+	public void put(K key, V value, long timeToLive, TimeUnit unit) {
+		if (timeToLive <= 0) throw new IllegalArgumentException();
+		long now = ticker.getAsLong();
+		sweep(now);
+		int weight = weigher.weigh(key, value);
+		if (weight < 0) throw new IllegalArgumentException("Negative weight: " + weight);
+		long expiresAt = timeToLive == NEVER ? NEVER : saturatedAdd(now, unit.toNanos(timeToLive));
+		anyExpiring |= expiresAt != NEVER;
+		ListNode node = store.get(key);
+		if (node != null) {
+			V oldValue = node.value;
+			totalWeight += weight - node.weight;
+			node.value = value;
+			node.weight = weight;
+			node.expiresAt = expiresAt;
+			makeMostRecent(node);
+			removalListener.onRemoval(key, oldValue, RemovalCause.REPLACED);
+		} else {
+			node = new ListNode(key, value, weight, expiresAt);
+			makeMostRecent(node);
+			store.put(key, node);
+			totalWeight += weight;
+		}
+		if (weight > maxWeight) { // would evict everything else and still not fit
+			remove(node, RemovalCause.SIZE);
+		}
+		while (totalWeight > maxWeight) {
+			invalidateOldest();
+		}
+	}
+
+	/**
+	 * @return the removed value, null if key was not cached (or had expired)
+	 * O(1) time.
+	 */
+	public V remove(K key) {
+		long now = ticker.getAsLong();
+		sweep(now);
+		ListNode node = store.get(key);
+		if (node == null) {
+			return null;
+		}
+		boolean expired = node.isExpiredAt(now);
+		remove(node, expired ? RemovalCause.EXPIRED : RemovalCause.EXPLICIT);
+		return expired ? null : node.value;
+	}
+
+	/**
+	 * Removes every expired entry now, rather than waiting for sweeps to reach them.
+	 * O(n) time.
+	 */
+	public void cleanUp() {
+		long now = ticker.getAsLong();
+		ListNode node = oldest;
+		while (node != null) {
+			ListNode next = node.newer;
+			if (node.isExpiredAt(now)) {
+				remove(node, RemovalCause.EXPIRED);
+			}
+			node = next;
+		}
+	}
+
+	/**
+	 * Number of entries held, including any expired ones not yet swept.
+	 */
+	public int size() {
+		return store.size();
+	}
+
+	public long weight() {
+		return totalWeight;
+	}
+
+	public String useOrder() {
+		ListNode node = newest;
+		if (node == null) {
+			return "EMPTY";
+		}
+		StringBuilder sb = new StringBuilder();
+		while (node != null) {
+			sb.append(node.key).append(" < ");
+			node = node.older;
+		}
+		return sb.toString();
+	}
+
+	// handles empty list ops
+	void makeMostRecent(ListNode node) {
+		if (newest == node) {
+			return;
+		}
+		if (node == oldest && node.newer != null) {
+			oldest = node.newer; // update oldest if necessary
+		}
+		if (node == sweepCursor) {
+			sweepCursor = node.newer;
+		}
+		node.removeSelf();
+		if (newest != null) {
+			newest.newer = node;
+		}
+		node.older = newest;
+		newest = node;
+		if (oldest == null) {
+			oldest = node;
+		}
+	}
+
+	// handles empty list ops
+	void invalidateOldest() {
+		if (oldest != null) {
+			remove(oldest, RemovalCause.SIZE);
+		}
+	}
+
+	private void remove(ListNode node, RemovalCause cause) {
+		if (node == sweepCursor) {
+			sweepCursor = node.newer;
+		}
+		if (node == newest) {
+			newest = node.older;
+		}
+		if (node == oldest) {
+			oldest = node.newer;
+		}
+		node.removeSelf();
+		store.remove(node.key);
+		totalWeight -= node.weight;
+		removalListener.onRemoval(node.key, node.value, cause);
+	}
+
+	// checks the next few entries along the list for expiry, wrapping back to the oldest
+	private void sweep(long now) {
+		if (!anyExpiring) {
+			return;
+		}
+		for (int i = 0; i < SWEEP_STEPS; i++) {
+			if (sweepCursor == null) {
+				sweepCursor = oldest;
+				if (sweepCursor == null) return;
+			}
+			ListNode node = sweepCursor;
+			sweepCursor = node.newer;
+			if (node.isExpiredAt(now)) {
+				remove(node, RemovalCause.EXPIRED);
+			}
+		}
+	}
+
+	// clamped below NEVER, so a very long time to live still expires in principle
+	private static long saturatedAdd(long now, long nanos) {
+		return now > 0 && nanos >= NEVER - now ? NEVER - 1 : now + nanos;
+	}
+
+	public static void main(String... args) {
+		long[] clock = {0};
+		WeightedLRUCache<String, String> cache = new WeightedLRUCache<>(10, (key, value) -> value.length(),
+						5, TimeUnit.NANOSECONDS,
+						(key, value, cause) -> System.out.println("removed " + key + " -> " + value + " (" + cause + ")"),
+						() -> clock[0]);
+		cache.put("a", "1234");
+		cache.put("b", "123");
+		cache.put("c", "12345"); // evicts a
+		System.out.println(cache.useOrder() + " weight " + cache.weight());
+		cache.put("d", "1", 100, TimeUnit.NANOSECONDS);
+		clock[0] = 6; // b and c expire
+		System.out.println("get b: " + cache.get("b"));
+		cache.cleanUp();
+		System.out.println(cache.useOrder() + " weight " + cache.weight());
+	}
+}
@@ -1,5 +1,6 @@
 package sequences;
 
+import util.LinearRecurrence;
 import util.ProblemSetIO;
 
 import java.io.IOException;
@@ -84,36 +85,30 @@ public class ScrambledWords {
 	 */
 	static byte[] generateLetters(char s0, char s1, int len, long A, long B, long C, long D) {
 		byte[] seq = new byte[len];
-		if (len > 0) {
-			seq[0] = asLetter(s0);
-		}
-		if (len > 1) {
-			seq[1] = asLetter(s1);
-		}
-		Deque<Long> prevX = new LinkedList<>();
-		prevX.add((long) s0);
-		prevX.add((long) s1);
-		for (int i = 2; i < len; i++) {
-			long x = (B * prevX.removeFirst() + A * prevX.getLast() + C) % D;
-			prevX.addLast(x);
-			seq[i] = (byte) (x % 26);
-		}
+		// x[i] = (A * x[i-1] + B * x[i-2] + C) % D, starting from the two given letters' char codes
+		// long sequences are generated in parallel chunks
+		new LinearRecurrence(len, s0, s1, A, B, C, D).forEachRemainingParallel((i, term) ->
+						seq[i] = i < 2 ? asLetter((char) term) : (byte) (term % ALPHABET_SIZE));
 		return seq;
 	}
 
 	public static void main(String... args) throws IOException {
 		Path inFile = ProblemSetIO.askForInputFile();
 		Path outFile = ProblemSetIO.defaultOutFile(inFile);
-		ProblemSetIO.googleCodeJamFileIO(inFile, outFile, (t, in, out) -> {
+		ProblemSetIO.googleCodeJamParallelFileIO(inFile, outFile, (t, in) -> {
 			int L = in.nextInt();
-			in.nextLine();
-			String[] dict = in.nextLine().split(" ");
+			String[] dict = new String[L];
+			for (int i = 0; i < L; i++) {
+				dict[i] = in.next();
+			}
 			char c0 = in.next().charAt(0);
 			char c1 = in.next().charAt(0);
-			int solution = solve(
-							generateLetters(c0, c1, in.nextInt(), in.nextLong(), in.nextLong(), in.nextLong(), in.nextLong()),
-							dict);
-			out.println("Case #" + t + ": " + solution);
+			int N = in.nextInt();
+			long A = in.nextLong();
+			long B = in.nextLong();
+			long C = in.nextLong();
+			long D = in.nextLong();
+			return () -> solve(generateLetters(c0, c1, N, A, B, C, D), dict);
 		});
 	}
 
@@ -1,7 +1,7 @@
 package sets_and_tuples;
 
-import util.Counter;
-import util.MathUtil;
+import util.Binomial;
+import util.LongCounter;
 import util.ProblemSetIO;
 
 import java.io.*;
@@ -25,26 +25,37 @@ public class ProductTriplets {
 	 */
 
 	static long solve(long[] values) {
-		Counter<Long> counter = new Counter<>(Arrays.stream(values).boxed().collect(Collectors.toList()));
-		long[] uniques = counter.getItemSet().stream().mapToLong(x -> x).toArray();
+		LongCounter counter = LongCounter.countParallel(values);
+		long[] uniques = counter.getItems();
 		long totalCount = 0;
 		for (int i = 0; i < uniques.length; i++) {
 			long x = uniques[i];
 			for (int j = i; j < uniques.length; j++) {
 				long y = uniques[j];
 				long z = x * y;
-				// ways to choose values matching (x,y,z) is the product of choosing [count in x,y,z] values
-				// from [count in full list].
-				long choices = 1;
-				for (Counter.Entry<Long> e : new Counter<>(x, y, z).getEntries()) {
-					choices *= MathUtil.nCk(counter.getCountFor(e.item), e.count);
-				}
-				totalCount += choices;
+				totalCount += countChoices(counter, x, y, z);
 			}
 		}
 		return totalCount;
 	}
 
+	/**
+	 * Ways to choose values matching (x,y,z) is the product of choosing [count in x,y,z] values
+	 * from [count in full list].
+	 * Multiplicities are worked out inline rather than through a throwaway Counter, since this runs once per pair.
+	 */
+	private static long countChoices(LongCounter counter, long x, long y, long z) {
+		int xMultiplicity = 1 + (x == y ? 1 : 0) + (x == z ? 1 : 0);
+		long choices = Binomial.exact(counter.getCountFor(x), xMultiplicity);
+		if (y != x) {
+			choices *= Binomial.exact(counter.getCountFor(y), 1 + (y == z ? 1 : 0));
+		}
+		if (z != x && z != y) {
+			choices *= counter.getCountFor(z); // nC1
+		}
+		return choices;
+	}
+
 	static long solveAllDistinct(long[] values) {
 		Set<Long> valSet = new HashSet<>(values.length);
 		for (long v : values) {
@@ -69,12 +80,13 @@ public class ProductTriplets {
 		Path inPath = ProblemSetIO.askForInputFile();
 		Path outPath = Paths.get(inPath.toString() + ".out");
 
-		ProblemSetIO.googleCodeJamFileIO(inPath, outPath, (t, in, out) -> {
+		ProblemSetIO.googleCodeJamParallelFileIO(inPath, outPath, (t, in) -> {
 			int N = in.nextInt();
-			in.nextLine();
-			long[] values = Arrays.stream(in.nextLine().split(" ")).mapToLong(Long::parseLong).toArray();
-			long count = solve(values);
-			out.println("Case #" + t + ": " + count);
+			long[] values = new long[N];
+			for (int i = 0; i < N; i++) {
+				values[i] = in.nextLong();
+			}
+			return () -> solve(values);
 		});
 	}
 }
@@ -0,0 +1,57 @@
+package util;
+
+import java.math.BigInteger;
+
+import static util.ModularArithmetic.unsignedMultiplyHigh;
+
+/**
+ * Reduction modulo a fixed m < 2^62 by Barrett's method: the quotient is estimated by multiplying with a
+ * precomputed fixed-point reciprocal of m, then corrected by a few subtractions.
+ * Costs a couple of multiplications instead of a hardware division per reduction.
+ * Works for any m, odd or even; see {@link MontgomeryReducer} for chains of products with odd m.
+ */
+public class BarrettReducer {
+	public static final long MAX_MODULUS = (1L << 62) - 1; // so 4m, the largest uncorrected remainder, fits in 64 bits
+
+	public final long m;
+	private final long wordReciprocal; // floor((2^64 - 1) / m), unsigned
+	private final int shift; // bit length of m - 1
+	private final long productReciprocal; // floor((2^(64 + shift) - 1) / m), unsigned
+
+	public BarrettReducer(long m) {
+		if (m < 1 || m > MAX_MODULUS) throw new IllegalArgumentException("Modulus out of range: " + m);
+		this.m = m;
+		this.wordReciprocal = Long.divideUnsigned(-1L, m);
+		this.shift = 63 - Long.numberOfLeadingZeros(m);
+		// fits in 64 bits since m >= 2^shift; computed once, so BigInteger is fine
+		this.productReciprocal = BigInteger.ONE.shiftLeft(64 + shift).subtract(BigInteger.ONE)
+						.divide(BigInteger.valueOf(m)).longValue();
+	}
+
+	/**
+	 * x mod m, for x >= 0.
+	 * O(1) time.
+	 */
+	public long reduce(long x) {
+		long r = x - unsignedMultiplyHigh(x, wordReciprocal) * m; // quotient estimate is at most 2 too small
+		while (r >= m) {
+			r -= m;
+		}
+		return r;
+	}
+
+	/**
+	 * (a * b) mod m, for a and b in [0, m).
+	 * O(1) time.
+	 */
+	public long mulMod(long a, long b) {
+		long lo = a * b;
+		// a * b < 2^(2 * shift + 2), so its top bits shifted down fit in a long
+		long top = shift == 0 ? lo : (Math.multiplyHigh(a, b) << (64 - shift)) | (lo >>> shift);
+		long r = lo - unsignedMultiplyHigh(top, productReciprocal) * m; // below 4m
+		while (Long.compareUnsigned(r, m) >= 0) {
+			r -= m;
+		}
+		return r;
+	}
+}
@@ -0,0 +1,83 @@
+package util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File output stream that collects writes in a large direct buffer and hands them to the OS in batches,
+ * so printing many short lines costs one write syscall per batch rather than one per line.
+ * Being direct, the buffer is written to the channel without an extra copy into native memory.
+ * <p>
+ * Data only reaches the file on {@link #flush()}, {@link #close()} or when the buffer fills up.
+ * Not thread-safe.
+ */
+public class BatchedOutputStream extends OutputStream {
+	private static final int DEFAULT_BATCH_SIZE = 1 << 23;
+
+	private final FileChannel channel;
+	private final ByteBuffer batch;
+
+	/**
+	 * Creates or truncates given file.
+	 */
+	public BatchedOutputStream(Path file) throws IOException {
+		this(file, DEFAULT_BATCH_SIZE);
+	}
+
+	public BatchedOutputStream(Path file, int batchSize) throws IOException {
+		if (batchSize <= 0) throw new IllegalArgumentException();
+		this.channel = FileChannel.open(file,
+						StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.batch = ByteBuffer.allocateDirect(batchSize);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (!batch.hasRemaining()) {
+			drain();
+		}
+		batch.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (len > batch.remaining()) {
+			drain();
+			if (len > batch.capacity()) { // wouldn't fit in any batch, so skip the copy
+				writeFully(ByteBuffer.wrap(b, off, len));
+				return;
+			}
+		}
+		batch.put(b, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		drain();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			drain();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void drain() throws IOException {
+		batch.flip();
+		writeFully(batch);
+		batch.clear();
+	}
+
+	private void writeFully(ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Exact binomial coefficients nCk.
+ * <p>
+ * Coefficients with n <= 66 (all of which fit in a long) come from a Pascal's triangle built on first use,
+ * and those with min(k, n-k) <= 4 and n < 2^16 from columns of it grown as larger n are asked for,
+ * so repeating any of these costs O(1). Others are multiplied out in O(min(k, n-k)) steps each time.
+ * Overflow is detected rather than silently wrapping; see {@link #big(long, long)} for values past Long.MAX_VALUE.
+ * For coefficients mod a prime, see {@link ModularBinomial}.
+ */
+public class Binomial {
+	static final int TABLE_MAX_N = 66; // C(67, 33) is the first coefficient to overflow a long
+	static final int COLUMN_MAX_K = 4;
+	static final int COLUMN_MAX_N = 1 << 16; // C(2^16 - 1, 4) < 2^60, so cached columns never overflow
+
+	/**
+	 * nCk, 0 if k < 0 or k > n.
+	 *
+	 * @throws ArithmeticException if the result overflows a long
+	 */
+	public static long exact(long n, long k) {
+		if (n < 0) throw new IllegalArgumentException("Negative n: " + n);
+		if (k < 0 || k > n) return 0;
+		k = Math.min(k, n - k);
+		if (n <= TABLE_MAX_N) {
+			return PascalTable.ROWS[(int) n][(int) k];
+		}
+		if (k <= 1) {
+			return k == 0 ? 1 : n;
+		}
+		if (k <= COLUMN_MAX_K && n < COLUMN_MAX_N) {
+			return PascalColumns.get((int) n, (int) k);
+		}
+		return multiplyOut(n, k);
+	}
+
+	/**
+	 * nCk of any size, 0 if k < 0 or k > n. As cheap as {@link #exact(long, long)} when the result fits in a long.
+	 */
+	public static BigInteger big(long n, long k) {
+		try {
+			return BigInteger.valueOf(exact(n, k));
+		} catch (ArithmeticException e) { // n > 66, 0 < k < n
+			k = Math.min(k, n - k);
+			BigInteger result = BigInteger.ONE;
+			for (long i = 1; i <= k; i++) { // every prefix is itself a binomial, so each division is exact
+				result = result.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * C(n-k+i, i) for i = 1..k, each step an exact division. Overflows only if the result does,
+	 * since every intermediate value is a smaller binomial.
+	 */
+	private static long multiplyOut(long n, long k) {
+		long result = 1;
+		for (long i = 1; i <= k; i++) {
+			// result * (n-k+i) is divisible by i: cancel the common factor so nothing is multiplied past the result
+			long g = gcd(result, i);
+			result = Math.multiplyExact(result / g, (n - k + i) / (i / g));
+		}
+		return result;
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	// initialized on first access, so callers that never hit small n don't pay for it
+	private static class PascalTable {
+		static final long[][] ROWS = build();
+
+		// row n holds C(n, 0..n/2)
+		private static long[][] build() {
+			long[][] rows = new long[TABLE_MAX_N + 1][];
+			for (int n = 0; n <= TABLE_MAX_N; n++) {
+				rows[n] = new long[n / 2 + 1];
+				rows[n][0] = 1;
+				for (int k = 1; k <= n / 2; k++) {
+					// C(n-1, k) mirrors to C(n-1, n-1-k) when past the stored half
+					long right = k <= (n - 1) / 2 ? rows[n - 1][k] : rows[n - 1][n - 1 - k];
+					rows[n][k] = rows[n - 1][k - 1] + right;
+				}
+			}
+			return rows;
+		}
+	}
+
+	// C(n, k) for 2 <= k <= COLUMN_MAX_K, grown by doubling up to COLUMN_MAX_N as larger n are asked for.
+	// reads are lock-free: a grown table is built aside and published whole
+	private static class PascalColumns {
+		private static volatile long[][] columns = new long[COLUMN_MAX_K + 1][0]; // columns[k][n], k >= 2
+
+		static long get(int n, int k) {
+			long[][] table = columns;
+			if (n >= table[k].length) {
+				table = grow(n);
+			}
+			return table[k][n];
+		}
+
+		private static synchronized long[][] grow(int n) {
+			long[][] table = columns;
+			int oldLength = table[2].length;
+			if (n < oldLength) {
+				return table;
+			}
+			int length = Math.min(COLUMN_MAX_N, Math.max(2 * oldLength, Integer.highestOneBit(n) * 2));
+			long[][] grown = new long[COLUMN_MAX_K + 1][];
+			for (int k = 2; k <= COLUMN_MAX_K; k++) {
+				grown[k] = Arrays.copyOf(table[k], length);
+			}
+			for (int i = Math.max(1, oldLength); i < length; i++) {
+				for (int k = 2; k <= COLUMN_MAX_K; k++) {
+					long left = k == 2 ? i - 1 : grown[k - 1][i - 1]; // C(i-1, k-1), column 1 being i-1 itself
+					grown[k][i] = grown[k][i - 1] + left;
+				}
+			}
+			columns = grown;
+			return grown;
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-case wall time and allocated bytes for a run of test cases, with histogram summaries and
+ * machine-readable reports for spotting pathological cases and regressions.
+ * <p>
+ * Allocated bytes are summed over every live thread while a case runs, so work a case hands to other threads
+ * (eg. parallel streams or ForkJoinPool tasks) counts towards it. Allocations of threads that end during the case
+ * are missed. If cases run concurrently, that sum would mix them up, so only the thread solving each case counts.
+ * <p>
+ * Cases may be measured concurrently from different threads, as each case only writes its own slot.
+ * Read results only after every measured case has completed (eg. after joining its future).
+ */
+public class CaseMetrics {
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATION_TRACKED = isAllocationTracked();
+
+	private final long[] wallNanos; // index t-1
+	private final long[] allocatedBytes; // index t-1, -1 if the JVM cannot report allocations
+	public final boolean concurrentCases; // if true, allocations are only counted on the thread measuring a case
+
+	/**
+	 * For cases measured one at a time
+	 */
+	public CaseMetrics(int nCases) {
+		this(nCases, false);
+	}
+
+	/**
+	 * @param concurrentCases true if cases may be measured concurrently, see class javadoc
+	 */
+	public CaseMetrics(int nCases, boolean concurrentCases) {
+		this.wallNanos = new long[nCases];
+		this.allocatedBytes = new long[nCases];
+		this.concurrentCases = concurrentCases;
+	}
+
+	public int numCases() {
+		return wallNanos.length;
+	}
+
+	/**
+	 * Runs case t's work on the current thread, recording its wall time and the bytes allocated meanwhile.
+	 *
+	 * @param t test case id (1-indexed)
+	 */
+	public void measure(int t, Runnable work) {
+		measureResult(t, () -> {
+			work.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Same as {@link #measure(int, Runnable)}, passing through the work's result
+	 */
+	public <R> R measureResult(int t, Supplier<R> work) {
+		if (!ALLOCATION_TRACKED) {
+			long startTime = System.nanoTime();
+			R result = work.get();
+			wallNanos[t - 1] = System.nanoTime() - startTime;
+			allocatedBytes[t - 1] = -1;
+			return result;
+		}
+		if (concurrentCases) {
+			long startBytes = currentThreadAllocatedBytes();
+			long startTime = System.nanoTime();
+			R result = work.get();
+			wallNanos[t - 1] = System.nanoTime() - startTime;
+			allocatedBytes[t - 1] = currentThreadAllocatedBytes() - startBytes;
+			return result;
+		}
+		long[] threadIds = THREADS.getAllThreadIds();
+		long[] startBytes = allocatedBytesOf(threadIds);
+		long startTime = System.nanoTime();
+		R result = work.get();
+		wallNanos[t - 1] = System.nanoTime() - startTime;
+		allocatedBytes[t - 1] = allocatedSince(threadIds, startBytes);
+		return result;
+	}
+
+	public long wallNanosOf(int t) {
+		return wallNanos[t - 1];
+	}
+
+	/**
+	 * @return -1 if the JVM does not support per-thread allocation accounting
+	 * @see #allocationScope()
+	 */
+	public long allocatedBytesOf(int t) {
+		return allocatedBytes[t - 1];
+	}
+
+	/**
+	 * Which threads' allocations count towards a case, for labelling reports
+	 */
+	public String allocationScope() {
+		return concurrentCases ? "solving thread" : "all threads";
+	}
+
+	public LatencyHistogram wallTimeHistogram() {
+		return histogramOf(wallNanos);
+	}
+
+	public LatencyHistogram allocationHistogram() {
+		return histogramOf(allocatedBytes);
+	}
+
+	/**
+	 * Human-readable summary of both histograms.
+	 */
+	public String summary() {
+		LatencyHistogram time = wallTimeHistogram();
+		String summary = String.format("%d cases, wall time p50 %.3fs, p99 %.3fs, max %.3fs (case #%d)",
+						numCases(), time.percentile(50) / 1e9, time.percentile(99) / 1e9, time.max() / 1e9,
+						slowestCase());
+		if (ALLOCATION_TRACKED) {
+			LatencyHistogram bytes = allocationHistogram();
+			summary += String.format(", allocated (%s) p50 %dB, p99 %dB, max %dB",
+							allocationScope(), bytes.percentile(50), bytes.percentile(99), bytes.max());
+		}
+		return summary;
+	}
+
+	/**
+	 * Writes {outFile}.metrics.json (summary and per-case values) and {outFile}.metrics.csv (per-case rows).
+	 */
+	public void writeReports(Path outFile) throws IOException {
+		writeJson(Paths.get(outFile + ".metrics.json"));
+		writeCsv(Paths.get(outFile + ".metrics.csv"));
+	}
+
+	public void writeCsv(Path file) throws IOException {
+		try (PrintStream csv = new PrintStream(file.toFile())) {
+			csv.println("case,wall_nanos,allocated_bytes");
+			for (int t = 1; t <= numCases(); t++) {
+				csv.println(t + "," + wallNanosOf(t) + "," + allocatedBytesOf(t));
+			}
+		}
+	}
+
+	public void writeJson(Path file) throws IOException {
+		try (PrintStream json = new PrintStream(file.toFile())) {
+			json.println("{");
+			json.println("  \"cases\": " + numCases() + ",");
+			json.println("  \"slowestCase\": " + slowestCase() + ",");
+			json.println("  \"wallNanos\": " + histogramJson(wallTimeHistogram()) + ",");
+			json.println("  \"allocatedBytes\": " + (ALLOCATION_TRACKED ? histogramJson(allocationHistogram()) : "null") + ",");
+			json.println("  \"allocationScope\": \"" + allocationScope() + "\",");
+			json.println("  \"perCase\": [");
+			for (int t = 1; t <= numCases(); t++) {
+				json.print("    {\"case\": " + t + ", \"wallNanos\": " + wallNanosOf(t)
+								+ ", \"allocatedBytes\": " + allocatedBytesOf(t) + "}");
+				json.println(t < numCases() ? "," : "");
+			}
+			json.println("  ]");
+			json.println("}");
+		}
+	}
+
+	// 0 if there were no cases
+	private int slowestCase() {
+		if (wallNanos.length == 0) return 0;
+		int slowest = 0;
+		for (int i = 1; i < wallNanos.length; i++) {
+			if (wallNanos[i] > wallNanos[slowest]) slowest = i;
+		}
+		return slowest + 1;
+	}
+
+	private static String histogramJson(LatencyHistogram histogram) {
+		return String.format(Locale.ROOT, "{\"p50\": %d, \"p99\": %d, \"max\": %d, \"mean\": %.1f}",
+						histogram.percentile(50), histogram.percentile(99), histogram.max(), histogram.mean());
+	}
+
+	private static LatencyHistogram histogramOf(long[] values) {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value : values) {
+			histogram.record(value);
+		}
+		return histogram;
+	}
+
+	private static long[] allocatedBytesOf(long[] threadIds) {
+		return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(threadIds);
+	}
+
+	// bytes allocated by the threads alive at the start, which have not ended, plus every thread started since
+	private static long allocatedSince(long[] startThreadIds, long[] startBytes) {
+		Map<Long, Long> before = new HashMap<>();
+		for (int i = 0; i < startThreadIds.length; i++) {
+			before.put(startThreadIds[i], startBytes[i]);
+		}
+		long[] threadIds = THREADS.getAllThreadIds();
+		long[] bytes = allocatedBytesOf(threadIds);
+		long allocated = 0;
+		for (int i = 0; i < threadIds.length; i++) {
+			long start = before.getOrDefault(threadIds[i], 0L);
+			if (bytes[i] >= 0 && start >= 0) { // -1 if the thread ended meanwhile
+				allocated += bytes[i] - start;
+			}
+		}
+		return allocated;
+	}
+
+	private static long currentThreadAllocatedBytes() {
+		return ALLOCATION_TRACKED ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : 0;
+	}
+
+	private static boolean isAllocationTracked() {
+		if (!(THREADS instanceof com.sun.management.ThreadMXBean)) return false;
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+		return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+	}
+}
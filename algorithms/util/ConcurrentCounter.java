@@ -0,0 +1,274 @@
+package util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe counterpart of {@link Counter} for feeding counts from several producer threads.
+ * Each item's count lives in its own {@link LongAdder}, which stripes updates across cells under contention,
+ * so increments from different threads neither share a lock nor fight over one cache line, even for the same item.
+ * <p>
+ * Differences from Counter:
+ * - Mutators named as in Counter return the count read just before their update. Updates to the same item racing
+ * on other threads may land on either side of that read, so it is exact only while one thread at a time updates
+ * the item. Reading it sums every stripe, so increment and add skip it, and are what scales across threads.
+ * - If {rememberZeroCounts} is false, items whose count drops to 0 are removed as in Counter, unless
+ * {allowNegativeCounts} is true: lock-free decrements leave no safe moment to remove an item, so there they are
+ * hidden from snapshots but kept, and a workload of many short-lived items grows the map.
+ * Either way, snapshots skip items caught at 0 by a racing update.
+ *
+ * @param <E> must be equals-immutable, otherwise behaviour is undefined.
+ */
+public class ConcurrentCounter<E> implements ItemCounts<E> {
+
+	/**
+	 * Count of one item. Flagged retired while being pruned from the map at 0, and for good once pruned,
+	 * so that updates racing with pruning are redone rather than lost (see prune).
+	 */
+	private static final class Cell extends LongAdder {
+		private static final long serialVersionUID = 1L;
+
+		volatile boolean retired = false;
+	}
+
+	private final ConcurrentHashMap<E, Cell> counts = new ConcurrentHashMap<>();
+
+	// config flags
+
+	public final boolean rememberZeroCounts; // if false, will not report any entries with counts of 0
+	public final boolean allowNegativeCounts; // if false, will lock count values to non-negative integers
+
+	public ConcurrentCounter() {
+		this(false, false);
+	}
+
+	public ConcurrentCounter(boolean allowNegativeCounts, boolean rememberZeroCounts) {
+		this.allowNegativeCounts = allowNegativeCounts;
+		this.rememberZeroCounts = rememberZeroCounts;
+	}
+
+	/**
+	 * Retrieve count of given item. Updates in flight on other threads may or may not be included.
+	 * O(number of stripes) time.
+	 */
+	@Override
+	public int getCountFor(E item) {
+		Cell cell = counts.get(item);
+		return cell == null ? 0 : (int) cell.sum();
+	}
+
+	/**
+	 * Increment count of given item.
+	 * O(number of stripes) time, lock-free.
+	 *
+	 * @return previous count (0 if no records).
+	 */
+	public int incrementCountFor(E item) {
+		return addToCount(item, 1);
+	}
+
+	/**
+	 * Decrement count of given item.
+	 * O(number of stripes) time. Takes the item's lock if not allowing negative counts.
+	 *
+	 * @return previous count (0 if no records).
+	 */
+	public int decrementCountFor(E item) {
+		return addToCount(item, -1);
+	}
+
+	/**
+	 * Increases count for given item by delta value.
+	 * Delta can be negative.
+	 * O(number of stripes) time. Increments are lock-free; decrements take the item's lock if not allowing
+	 * negative counts, and so does removing an item that reached 0 (briefly holding up increments of it).
+	 *
+	 * @return previous count (0 if no records).
+	 */
+	public int addToCount(E item, int delta) {
+		return (int) update(item, delta, true);
+	}
+
+	/**
+	 * Increment count of given item, without reporting the previous count.
+	 * O(1) time, lock-free: only touches one stripe, so prefer this for increments from many threads.
+	 */
+	public void increment(E item) {
+		update(item, 1, false);
+	}
+
+	/**
+	 * Increases count for given item by delta value, without reporting the previous count.
+	 * Delta can be negative.
+	 * O(1) time for increments, which are lock-free and only touch one stripe.
+	 * Decrements are as in addToCount.
+	 */
+	public void add(E item, int delta) {
+		update(item, delta, false);
+	}
+
+	// applies delta, returning the previous count if asked for it, otherwise 0. summing the stripes is what the
+	// previous count costs, as every thread then reads every stripe, so lock-free adds only do it when asked;
+	// serialized decrements need the sum anyway, to clamp at 0 and to know when to prune
+	private long update(E item, int delta, boolean readPrevious) {
+		while (true) {
+			Cell cell = counts.get(item); // fast path, items already seen never touch the map's locks
+			if (cell == null) {
+				if (delta == 0 || (delta < 0 && !allowNegativeCounts)) {
+					if (rememberZeroCounts) { // counter would clamp to (or stay at) 0, only need to record the item
+						counts.putIfAbsent(item, new Cell());
+					}
+					return 0;
+				}
+				cell = counts.computeIfAbsent(item, k -> new Cell());
+			}
+			if (delta >= 0 || allowNegativeCounts) {
+				// never prunes: without negative counts, only a decrement can bring an item down to 0
+				long prevCount = readPrevious ? cell.sum() : 0;
+				cell.add(delta);
+				if (cell.retired && !survivesPrune(cell)) { // pruned, so the add was lost with the cell: redo it
+					continue;
+				}
+				return prevCount;
+			}
+			long prevCount;
+			long newCount;
+			// decrements are serialized so two of them cannot both see the same count and overshoot below 0.
+			// a racing increment can only make the sum read here too small, which clamps conservatively
+			synchronized (cell) {
+				if (cell.retired) {
+					continue;
+				}
+				prevCount = cell.sum();
+				newCount = Math.max(0, prevCount + delta);
+				cell.add(newCount - prevCount);
+			}
+			if (newCount == 0 && !rememberZeroCounts) {
+				prune(item, cell);
+			}
+			return prevCount;
+		}
+	}
+
+	// removes item if its cell is still at 0. decrements are locked out, so only increments can race with the sum,
+	// and as counts are never negative, a sum of 0 includes none of them. the cell is retired before the sum is read,
+	// so every increment it missed sees the flag and is redone once the cell is gone
+	private void prune(E item, Cell cell) {
+		counts.computeIfPresent(item, (k, current) -> {
+			if (current != cell) {
+				return current;
+			}
+			synchronized (cell) {
+				cell.retired = true;
+				if (cell.sum() == 0) {
+					return null;
+				}
+				cell.retired = false;
+				return cell;
+			}
+		});
+	}
+
+	// waits out a prune that retired cell, and tells whether cell stayed in the map
+	private static boolean survivesPrune(Cell cell) {
+		synchronized (cell) {
+			return !cell.retired;
+		}
+	}
+
+	/**
+	 * Retrieve a weakly consistent snapshot list of counts for each item:
+	 * reflects every update completed before the call, and may or may not reflect updates made during it.
+	 * Changes to either this list or this counter instance will not propagate to each other.
+	 * If {rememberZeroCounts} is false, this list of entries will not contain items with a count of 0
+	 * even if the item was seen before.
+	 */
+	@Override
+	public List<Counter.Entry<E>> getEntries() {
+		List<Counter.Entry<E>> entries = new ArrayList<>(counts.size());
+		counts.forEach((item, cell) -> {
+			int count = (int) cell.sum();
+			if (count != 0 || rememberZeroCounts) {
+				entries.add(new Counter.Entry<>(item, count));
+			}
+		});
+		return entries;
+	}
+
+	/**
+	 * Retrieve a weakly consistent snapshot set of items tracked by the counter.
+	 * If {rememberZeroCounts} is false, this set of items will not contain items with a count of 0
+	 * even if the item was seen before.
+	 */
+	public Set<E> getItemSet() {
+		Set<E> items = new HashSet<>();
+		counts.forEach((item, cell) -> {
+			if (rememberZeroCounts || cell.sum() != 0) {
+				items.add(item);
+			}
+		});
+		return items;
+	}
+
+	/**
+	 * Contention benchmark: every thread increments random items drawn from a small key set,
+	 * against this class and against a Counter guarded by a single lock.
+	 * args: [distinct keys] [increments per thread]
+	 */
+	public static void main(String... args) throws InterruptedException {
+		int nKeys = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+		Integer[] keys = new Integer[nKeys]; // boxed up front so the benchmark doesn't measure boxing
+		for (int i = 0; i < nKeys; i++) {
+			keys[i] = i;
+		}
+
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		for (int nThreads = 1; nThreads <= maxThreads; nThreads *= 2) {
+			ConcurrentCounter<Integer> concurrent = new ConcurrentCounter<>();
+			double concurrentRate = runIncrements(nThreads, opsPerThread, keys, concurrent::increment);
+
+			Counter<Integer> locked = new Counter<>();
+			double lockedRate = runIncrements(nThreads, opsPerThread, keys, item -> {
+				synchronized (locked) {
+					locked.incrementCountFor(item);
+				}
+			});
+
+			System.out.printf("%2d threads: ConcurrentCounter %7.1f Mops/s, synchronized Counter %7.1f Mops/s%n",
+							nThreads, concurrentRate / 1e6, lockedRate / 1e6);
+		}
+	}
+
+	// returns increments per second across all threads
+	private static double runIncrements(int nThreads, int opsPerThread, Integer[] keys,
+	                                    Consumer<Integer> increment) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[nThreads];
+		for (int t = 0; t < nThreads; t++) {
+			threads[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < opsPerThread; i++) {
+					increment.accept(keys[random.nextInt(keys.length)]);
+				}
+			});
+			threads[t].start();
+		}
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		double elapsedTime = (System.nanoTime() - startTime) / 1e9;
+		return (double) nThreads * opsPerThread / elapsedTime;
+	}
+}
@@ -0,0 +1,119 @@
+package util;
+
+/**
+ * Count-Min sketch: approximate point counts for a stream of items in fixed memory (width * depth ints),
+ * however many distinct items arrive.
+ * Estimates never undercount. With probability {confidence}, an estimate overcounts by at most
+ * {epsilon} * (total of all deltas added).
+ * <p>
+ * Uses conservative update: an update only raises the rows that would otherwise fall below the new estimate,
+ * which keeps the guarantee above and tightens estimates in practice.
+ *
+ * @param <E> must be equals-immutable, otherwise behaviour is undefined.
+ */
+public class CountMinSketch<E> {
+	private final int[] table; // depth rows of width counters, row-major
+	private final int width; // power of 2
+	private final int depth;
+	private long totalCount = 0;
+
+	/**
+	 * @param epsilon    max overcount, as a fraction of the total count
+	 * @param confidence probability that an estimate is within the epsilon bound
+	 */
+	public CountMinSketch(double epsilon, double confidence) {
+		this(widthFor(epsilon), depthFor(confidence));
+	}
+
+	/**
+	 * @param width counters per row, rounded up to a power of 2
+	 * @param depth number of rows (independent hash functions)
+	 */
+	public CountMinSketch(int width, int depth) {
+		if (width <= 0 || width > 1 << 30 || depth <= 0) throw new IllegalArgumentException();
+		int roundedWidth = 1;
+		while (roundedWidth < width) {
+			roundedWidth <<= 1;
+		}
+		this.width = roundedWidth;
+		this.depth = depth;
+		this.table = new int[this.width * depth];
+	}
+
+	/**
+	 * Estimated count of given item: never less than the true count.
+	 * O(depth) time.
+	 */
+	public int getCountFor(E item) {
+		long hash = spread(item);
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, table[index(hash, row)]);
+		}
+		return estimate;
+	}
+
+	public void incrementCountFor(E item) {
+		addToCount(item, 1);
+	}
+
+	/**
+	 * Increases count for given item by delta value. Counters saturate at Integer.MAX_VALUE.
+	 * O(depth) time.
+	 *
+	 * @throws IllegalArgumentException if delta is negative, since sketch counters cannot be taken back
+	 */
+	public void addToCount(E item, int delta) {
+		if (delta < 0) throw new IllegalArgumentException("Count-Min sketch only supports non-negative deltas");
+		totalCount += delta;
+		long hash = spread(item);
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, table[index(hash, row)]);
+		}
+		int newEstimate = (int) Math.min(Integer.MAX_VALUE, (long) estimate + delta);
+		for (int row = 0; row < depth; row++) { // conservative update
+			int i = index(hash, row);
+			table[i] = Math.max(table[i], newEstimate);
+		}
+	}
+
+	/**
+	 * Sum of all deltas added so far.
+	 */
+	public long totalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Overcount bound that holds for an estimate with the sketch's confidence: e / width * (total count).
+	 */
+	public long errorBound() {
+		return (long) Math.ceil(Math.E / width * totalCount);
+	}
+
+	private int index(long hash, int row) {
+		// derive the row's hash function by remixing with a per-row odd multiplier
+		long h = (hash + row) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 29;
+		return row * width + ((int) (h ^ (h >>> 32)) & (width - 1));
+	}
+
+	private static long spread(Object item) {
+		long h = item == null ? 0 : item.hashCode();
+		h *= 0xBF58476D1CE4E5B9L; // splitmix64 finalizer
+		h ^= h >>> 31;
+		h *= 0x94D049BB133111EBL;
+		return h ^ (h >>> 29);
+	}
+
+	static int widthFor(double epsilon) {
+		if (!(epsilon > 0 && epsilon < 1)) throw new IllegalArgumentException("epsilon must be in (0, 1)");
+		return (int) Math.ceil(Math.E / epsilon);
+	}
+
+	static int depthFor(double confidence) {
+		if (!(confidence > 0 && confidence < 1)) throw new IllegalArgumentException("confidence must be in (0, 1)");
+		return Math.max(1, (int) Math.ceil(Math.log(1 / (1 - confidence))));
+	}
+}
@@ -1,17 +1,20 @@
 package util;
 
 import java.util.*;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 /**
  * @param <E> must be equals-immutable, otherwise behaviour is undefined.
  */
-public class Counter<E> {
+public class Counter<E> implements ItemCounts<E> {
 	public static class Entry<E> {
 		public final E item;
 		public final int count;
 
-		private Entry(E item, int count) {
+		Entry(E item, int count) {
 			this.item = item;
 			this.count = count;
 		}
@@ -30,24 +33,24 @@ public class Counter<E> {
 		} // help with method referencing
 	}
 
+	// collections at least this big are counted on all cores, smaller ones are not worth forking for
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
 	private Map<E, Integer> counts;
+	private FrequencyBuckets<E> frequencies; // null unless {trackFrequencies}
 
 	// config flags
 
 	public final boolean rememberZeroCounts; // if false, will not keep any entries with counts of 0 (sparse representation)
 	public final boolean allowNegativeCounts; // if false, will lock count values to non-negative integers
+	public final boolean trackFrequencies; // if true, keeps items bucketed by count for O(k) most/least common queries
 
 	public Counter() {
-		this.counts = new HashMap<>();
-		this.allowNegativeCounts = false;
-		this.rememberZeroCounts = false;
+		this(false, false, false);
 	}
 
 	public Counter(Collection<E> items) {
-		this();
-		for (E item : items) {
-			this.incrementCountFor(item);
-		}
+		this(false, false, items);
 	}
 
 	public Counter(E... items) {
@@ -56,15 +59,30 @@ public class Counter<E> {
 
 
 	public Counter(boolean allowNegativeCounts, boolean rememberZeroCounts) {
+		this(allowNegativeCounts, rememberZeroCounts, false);
+	}
+
+	/**
+	 * @param trackFrequencies if true, also index items by count, see {@link #mostCommon(int)}.
+	 *                         Updates stay O(1) but use more memory.
+	 */
+	public Counter(boolean allowNegativeCounts, boolean rememberZeroCounts, boolean trackFrequencies) {
 		this.counts = new HashMap<>();
 		this.allowNegativeCounts = allowNegativeCounts;
 		this.rememberZeroCounts = rememberZeroCounts;
+		this.trackFrequencies = trackFrequencies;
+		this.frequencies = trackFrequencies ? new FrequencyBuckets<>() : null;
 	}
 
 	public Counter(boolean allowNegativeCounts, boolean rememberZeroCounts, Collection<E> items) {
 		this(allowNegativeCounts, rememberZeroCounts);
-		for (E item : items) {
-			this.incrementCountFor(item);
+		if (items.size() >= PARALLEL_THRESHOLD) {
+			// partial counters have the same config, so the merged state can be adopted directly
+			this.counts = items.parallelStream().collect(toCounter(allowNegativeCounts, rememberZeroCounts)).counts;
+		} else {
+			for (E item : items) {
+				this.incrementCountFor(item);
+			}
 		}
 	}
 
@@ -76,22 +94,24 @@ public class Counter<E> {
 	 * Copies a given Counter, including config flags. Count states are not linked.
 	 */
 	public Counter(Counter<E> cloneFrom) {
-		this(cloneFrom.allowNegativeCounts, cloneFrom.rememberZeroCounts);
+		this(cloneFrom.allowNegativeCounts, cloneFrom.rememberZeroCounts, cloneFrom.trackFrequencies);
 		// can directly copy internal state since same config constraints
 		this.counts = new HashMap<>(cloneFrom.counts);
+		if (trackFrequencies) {
+			this.counts.forEach(frequencies::add);
+		}
 	}
 
 	public Counter(Counter<E> cloneFrom, boolean allowNegativeCounts, boolean rememberZeroCounts) {
 		this(allowNegativeCounts, rememberZeroCounts);
-		for (Entry<E> e : cloneFrom.getEntries()) {
-			this.setCount(e.item, e.count);
-		}
+		cloneFrom.forEach(this::setCount);
 	}
 
 	/**
 	 * Retrieve count of given item.
 	 * O(1) time.
 	 */
+	@Override
 	public int getCountFor(E item) {
 		return this.counts.getOrDefault(item, 0);
 	}
@@ -128,11 +148,25 @@ public class Counter<E> {
 		return this.setCount(item, newCount);
 	}
 
+	/**
+	 * Adds every count in other to the count of the same item in this counter.
+	 * This counter's config flags apply to the results, eg. sums are bound to non-negative values if not allowing
+	 * negative values, and items other remembers with 0 counts are only kept if this counter remembers zero counts.
+	 * O(size of other) time.
+	 *
+	 * @return this counter, for chaining and use as a combiner.
+	 */
+	public Counter<E> merge(Counter<? extends E> other) {
+		other.forEach(this::addToCount);
+		return this;
+	}
+
 	/**
 	 * Sets count of an item to a specific value. Performs all update housekeeping:
 	 * - Updates {totalCount} memoization
 	 * - Binds count to non-negative values if not allowing negative values
 	 * - Trims entries if not remembering zero counts
+	 * - Moves item between frequency buckets if tracking frequencies
 	 * <p>
 	 * O(1) time.
 	 *
@@ -147,11 +181,18 @@ public class Counter<E> {
 			prevCount = this.counts.remove(item);
 			if (prevCount == null) {
 				prevCount = 0;
+			} else if (frequencies != null) {
+				frequencies.remove(item, prevCount);
 			}
 		} else {
 			prevCount = this.counts.put(item, newCount);
 			if (prevCount == null) {
 				prevCount = 0;
+				if (frequencies != null) {
+					frequencies.add(item, newCount);
+				}
+			} else if (frequencies != null) {
+				frequencies.move(item, prevCount, newCount);
 			}
 		}
 		return prevCount;
@@ -163,6 +204,7 @@ public class Counter<E> {
 	 * If {rememberZeroCounts} is false, this list of entries will not contain items with a count of 0
 	 * even if the item was seen before.
 	 */
+	@Override
 	public List<Entry<E>> getEntries() {
 		return counts.entrySet().stream()
 						.map(e -> new Entry<>(e.getKey(), e.getValue()))
@@ -178,6 +220,109 @@ public class Counter<E> {
 		return new HashSet<>(counts.keySet());
 	}
 
+	/**
+	 * Retrieve up to k items with the highest counts, highest first. Ties are broken arbitrarily.
+	 * O(k) time if tracking frequencies, else sorts a snapshot in O(nlogn) time.
+	 */
+	public List<Entry<E>> mostCommon(int k) {
+		if (frequencies != null) {
+			return frequencies.highest(k);
+		}
+		List<Entry<E>> entries = getEntries();
+		entries.sort(Comparator.comparingInt((Entry<E> e) -> e.count).reversed());
+		return new ArrayList<>(entries.subList(0, Math.max(0, Math.min(k, entries.size()))));
+	}
+
+	/**
+	 * Retrieve up to k items with the lowest counts, lowest first. Ties are broken arbitrarily.
+	 * If {rememberZeroCounts} is false, items with a count of 0 are not included.
+	 * O(k) time if tracking frequencies, else sorts a snapshot in O(nlogn) time.
+	 */
+	public List<Entry<E>> leastCommon(int k) {
+		if (frequencies != null) {
+			return frequencies.lowest(k);
+		}
+		List<Entry<E>> entries = getEntries();
+		entries.sort(Comparator.comparingInt((Entry<E> e) -> e.count));
+		return new ArrayList<>(entries.subList(0, Math.max(0, Math.min(k, entries.size()))));
+	}
+
+	/**
+	 * Highest count of any tracked item.
+	 * O(1) time if tracking frequencies, else O(n).
+	 *
+	 * @throws NoSuchElementException if no items are tracked
+	 */
+	public int maxCount() {
+		if (frequencies != null) {
+			return frequencies.maxCount();
+		}
+		return counts.values().stream().mapToInt(c -> c).max().orElseThrow(NoSuchElementException::new);
+	}
+
+	/**
+	 * Lowest count of any tracked item.
+	 * O(1) time if tracking frequencies, else O(n).
+	 *
+	 * @throws NoSuchElementException if no items are tracked
+	 */
+	public int minCount() {
+		if (frequencies != null) {
+			return frequencies.minCount();
+		}
+		return counts.values().stream().mapToInt(c -> c).min().orElseThrow(NoSuchElementException::new);
+	}
+
+	/**
+	 * Performs the given action for each tracked item and its count, in no particular order.
+	 * Unlike {@link #getEntries()}, no snapshot or Entry objects are built.
+	 * The counter must not be modified by the action.
+	 * If {rememberZeroCounts} is false, items with a count of 0 are skipped even if the item was seen before.
+	 */
+	public void forEach(ObjIntConsumer<? super E> action) {
+		counts.forEach(action::accept);
+	}
+
+	/**
+	 * Retrieve a snapshot of items, mapped to primitive keys by {keyOf}, and their counts as parallel arrays
+	 * sorted ascending by key.
+	 * O(n) time: radix sorts primitives instead of comparison sorting boxed entries.
+	 * If {rememberZeroCounts} is false, this snapshot will not contain items with a count of 0
+	 * even if the item was seen before.
+	 */
+	public SortedCounts exportSorted(ToLongFunction<? super E> keyOf) {
+		long[] keys = new long[counts.size()];
+		int[] itemCounts = new int[counts.size()];
+		int i = 0;
+		for (Map.Entry<E, Integer> e : counts.entrySet()) {
+			keys[i] = keyOf.applyAsLong(e.getKey());
+			itemCounts[i] = e.getValue();
+			i++;
+		}
+		return new SortedCounts(keys, itemCounts);
+	}
+
+	/**
+	 * Collector counting stream elements, see {@link #toCounter(boolean, boolean)}.
+	 */
+	public static <E> Collector<E, ?, Counter<E>> toCounter() {
+		return toCounter(false, false);
+	}
+
+	/**
+	 * Collector counting stream elements into a Counter with the given config flags.
+	 * On a parallel stream, each worker counts into its own partial counter and the partials are merged pairwise,
+	 * smaller into larger, so no counter is ever shared between threads.
+	 */
+	public static <E> Collector<E, ?, Counter<E>> toCounter(boolean allowNegativeCounts, boolean rememberZeroCounts) {
+		return Collector.of(
+						() -> new Counter<E>(allowNegativeCounts, rememberZeroCounts),
+						Counter::incrementCountFor,
+						(a, b) -> a.counts.size() >= b.counts.size() ? a.merge(b) : b.merge(a),
+						Collector.Characteristics.UNORDERED,
+						Collector.Characteristics.IDENTITY_FINISH);
+	}
+
 	public static void main(String... args) {
 
 	}
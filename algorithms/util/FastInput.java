@@ -0,0 +1,219 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Whitespace-delimited token reader over a large byte buffer, for inputs where {@link java.util.Scanner}'s
+ * regex matching costs more than solving. Numbers are parsed straight from bytes without building Strings.
+ * <p>
+ * Follows Scanner's conventions so handlers can switch over unchanged:
+ * tokens are separated by any whitespace, and {@link #nextLine()} after a token returns the rest of that line.
+ * Input is treated as ASCII. Not thread-safe.
+ * <p>
+ * Reads either from a stream, or from a memory-mapped file (see {@link #mapped(Path)}) which needs no read
+ * syscalls at all: the file is mapped in large windows and bytes are copied out of the page cache.
+ */
+public class FastInput implements AutoCloseable {
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+	private static final int FILE_BUFFER_SIZE = 1 << 20;
+	private static final long MAP_WINDOW_SIZE = 1 << 30; // a single mapping is capped at 2GB, so map files in windows
+
+	private final InputStream source; // null if reading a mapped file
+	private final FileChannel channel; // null if reading a stream
+	private final long mapWindowSize;
+	private MappedByteBuffer window;
+	private long windowEnd = 0; // file position just after the current window
+	private final byte[] buf;
+	private int bufLen = 0;
+	private int bufPos = 0;
+
+	public FastInput(InputStream source) {
+		this(source, DEFAULT_BUFFER_SIZE);
+	}
+
+	public FastInput(InputStream source, int bufferSize) {
+		this.source = source;
+		this.channel = null;
+		this.mapWindowSize = 0;
+		this.buf = new byte[bufferSize];
+	}
+
+	public FastInput(Path file) throws IOException {
+		this(Files.newInputStream(file), FILE_BUFFER_SIZE);
+	}
+
+	FastInput(FileChannel channel, long mapWindowSize, int bufferSize) {
+		this.source = null;
+		this.channel = channel;
+		this.mapWindowSize = mapWindowSize;
+		this.buf = new byte[bufferSize];
+	}
+
+	/**
+	 * Reads given file through read-only memory mappings instead of read calls. Works for files of any size.
+	 */
+	public static FastInput mapped(Path file) throws IOException {
+		return new FastInput(FileChannel.open(file, StandardOpenOption.READ), MAP_WINDOW_SIZE, FILE_BUFFER_SIZE);
+	}
+
+	/**
+	 * @throws NoSuchElementException if input is exhausted
+	 * @throws NumberFormatException  if the next token is not an int
+	 */
+	public int nextInt() {
+		long value = nextLong();
+		if ((int) value != value) throw new NumberFormatException("Value out of int range: " + value);
+		return (int) value;
+	}
+
+	/**
+	 * @throws NoSuchElementException if input is exhausted
+	 * @throws NumberFormatException  if the next token is not a long
+	 */
+	public long nextLong() {
+		int b = skipWhitespace();
+		boolean negative = b == '-';
+		if (negative || b == '+') {
+			b = read();
+		}
+		if (b < '0' || b > '9') throw new NumberFormatException("Not a number at '" + (char) b + "'");
+		// accumulate as a negative number so Long.MIN_VALUE parses without overflowing
+		long value = 0;
+		while (b >= '0' && b <= '9') {
+			int digit = b - '0';
+			if (value < (Long.MIN_VALUE + digit) / 10) throw new NumberFormatException("Value out of long range");
+			value = value * 10 - digit;
+			b = read();
+		}
+		if (b != -1 && !isWhitespace(b)) throw new NumberFormatException("Not a number at '" + (char) b + "'");
+		unread(b);
+		if (negative) {
+			return value;
+		}
+		if (value == Long.MIN_VALUE) throw new NumberFormatException("Value out of long range");
+		return -value;
+	}
+
+	/**
+	 * Next whitespace-delimited token, like {@link java.util.Scanner#next()}.
+	 *
+	 * @throws NoSuchElementException if input is exhausted
+	 */
+	public String next() {
+		StringBuilder sb = new StringBuilder();
+		int b = skipWhitespace();
+		while (b != -1 && !isWhitespace(b)) {
+			sb.append((char) b);
+			b = read();
+		}
+		unread(b);
+		return sb.toString();
+	}
+
+	/**
+	 * Rest of the current line, excluding the line terminator (\n or \r\n), like {@link java.util.Scanner#nextLine()}.
+	 *
+	 * @throws NoSuchElementException if input is exhausted
+	 */
+	public String nextLine() {
+		int b = read();
+		if (b == -1) throw new NoSuchElementException("No line found");
+		StringBuilder sb = new StringBuilder();
+		while (b != -1 && b != '\n') {
+			sb.append((char) b);
+			b = read();
+		}
+		int len = sb.length();
+		if (len > 0 && sb.charAt(len - 1) == '\r') {
+			sb.setLength(len - 1);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * True if there is another token before the end of input.
+	 */
+	public boolean hasNext() {
+		int b = read();
+		while (b != -1 && isWhitespace(b)) {
+			b = read();
+		}
+		unread(b);
+		return b != -1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (source != null) {
+			source.close();
+		} else {
+			window = null; // mappings are released once unreachable
+			channel.close();
+		}
+	}
+
+	private int skipWhitespace() {
+		int b = read();
+		while (b != -1 && isWhitespace(b)) {
+			b = read();
+		}
+		if (b == -1) throw new NoSuchElementException();
+		return b;
+	}
+
+	private int read() {
+		if (bufPos == bufLen && !fill()) {
+			return -1;
+		}
+		return buf[bufPos++] & 0xFF;
+	}
+
+	// only ever called right after read(), so the byte is still in the buffer
+	private void unread(int b) {
+		if (b != -1) {
+			bufPos--;
+		}
+	}
+
+	private boolean fill() {
+		try {
+			bufLen = source != null ? source.read(buf, 0, buf.length) : copyFromMapping();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		bufPos = 0;
+		if (bufLen <= 0) {
+			bufLen = 0;
+			return false;
+		}
+		return true;
+	}
+
+	// bulk copy out of the current window, mapping the next one once it is used up. -1 at end of file
+	private int copyFromMapping() throws IOException {
+		if (window == null || !window.hasRemaining()) {
+			long fileSize = channel.size();
+			if (windowEnd >= fileSize) {
+				return -1;
+			}
+			long windowStart = windowEnd;
+			windowEnd = Math.min(fileSize, windowStart + mapWindowSize);
+			window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+		}
+		int len = Math.min(buf.length, window.remaining());
+		window.get(buf, 0, len);
+		return len;
+	}
+
+	private static boolean isWhitespace(int b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+	}
+}
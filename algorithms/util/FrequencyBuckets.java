@@ -0,0 +1,155 @@
+package util;
+
+import java.util.*;
+
+/**
+ * Index from count to the items having that count, as kept by an O(1) LFU cache.
+ * Buckets with at least one item form a doubly linked list sorted by count,
+ * so the most and least common items are always at the ends.
+ * <p>
+ * Moving an item by +/-1 is O(1). Moving it by a larger delta walks past the buckets in between,
+ * so costs O(distinct counts skipped).
+ */
+class FrequencyBuckets<E> {
+
+	private static class Bucket<E> {
+		final int count;
+		final Set<E> items = new LinkedHashSet<>(); // oldest arrival at this count first
+		Bucket<E> lower;
+		Bucket<E> higher;
+
+		Bucket(int count) {
+			this.count = count;
+		}
+	}
+
+	private final Map<Integer, Bucket<E>> bucketOfCount = new HashMap<>();
+	private Bucket<E> lowest = null;
+	private Bucket<E> highest = null;
+
+	boolean isEmpty() {
+		return lowest == null;
+	}
+
+	int minCount() {
+		if (lowest == null) throw new NoSuchElementException();
+		return lowest.count;
+	}
+
+	int maxCount() {
+		if (highest == null) throw new NoSuchElementException();
+		return highest.count;
+	}
+
+	/**
+	 * Start tracking an item.
+	 * O(1) time if count is within 1 of the smallest count, else O(distinct counts below it).
+	 */
+	void add(E item, int count) {
+		bucketFor(count, lowest).items.add(item);
+	}
+
+	/**
+	 * Stop tracking an item.
+	 * O(1) time.
+	 */
+	void remove(E item, int count) {
+		Bucket<E> bucket = bucketOfCount.get(count);
+		bucket.items.remove(item);
+		if (bucket.items.isEmpty()) {
+			unlink(bucket);
+		}
+	}
+
+	/**
+	 * Moves a tracked item to a new count.
+	 * O(1) time if counts differ by 1, else O(distinct counts between them).
+	 */
+	void move(E item, int oldCount, int newCount) {
+		if (oldCount == newCount) {
+			return;
+		}
+		Bucket<E> from = bucketOfCount.get(oldCount);
+		bucketFor(newCount, from).items.add(item); // link the new bucket before from can be unlinked
+		from.items.remove(item);
+		if (from.items.isEmpty()) {
+			unlink(from);
+		}
+	}
+
+	/**
+	 * Up to k items with the highest counts, highest first.
+	 * O(k) time.
+	 */
+	List<Counter.Entry<E>> highest(int k) {
+		List<Counter.Entry<E>> entries = new ArrayList<>(Math.max(0, k));
+		for (Bucket<E> bucket = highest; bucket != null && entries.size() < k; bucket = bucket.lower) {
+			addEntries(bucket, k, entries);
+		}
+		return entries;
+	}
+
+	/**
+	 * Up to k items with the lowest counts, lowest first.
+	 * O(k) time.
+	 */
+	List<Counter.Entry<E>> lowest(int k) {
+		List<Counter.Entry<E>> entries = new ArrayList<>(Math.max(0, k));
+		for (Bucket<E> bucket = lowest; bucket != null && entries.size() < k; bucket = bucket.higher) {
+			addEntries(bucket, k, entries);
+		}
+		return entries;
+	}
+
+	private void addEntries(Bucket<E> bucket, int k, List<Counter.Entry<E>> entries) {
+		for (E item : bucket.items) {
+			if (entries.size() == k) {
+				return;
+			}
+			entries.add(new Counter.Entry<>(item, bucket.count));
+		}
+	}
+
+	/**
+	 * Bucket for given count, creating and linking it if needed by walking the list from the nearby bucket.
+	 */
+	private Bucket<E> bucketFor(int count, Bucket<E> nearby) {
+		Bucket<E> bucket = bucketOfCount.get(count);
+		if (bucket != null) {
+			return bucket;
+		}
+		bucket = new Bucket<>(count);
+		bucketOfCount.put(count, bucket);
+		if (nearby == null) { // empty list
+			lowest = bucket;
+			highest = bucket;
+		} else if (count > nearby.count) {
+			Bucket<E> before = nearby;
+			while (before.higher != null && before.higher.count < count) {
+				before = before.higher;
+			}
+			bucket.lower = before;
+			bucket.higher = before.higher;
+		} else {
+			Bucket<E> after = nearby;
+			while (after.lower != null && after.lower.count > count) {
+				after = after.lower;
+			}
+			bucket.higher = after;
+			bucket.lower = after.lower;
+		}
+		if (bucket.lower != null) bucket.lower.higher = bucket;
+		else lowest = bucket;
+		if (bucket.higher != null) bucket.higher.lower = bucket;
+		else highest = bucket;
+		return bucket;
+	}
+
+	private void unlink(Bucket<E> bucket) {
+		bucketOfCount.remove(bucket.count);
+		if (bucket.lower != null) bucket.lower.higher = bucket.higher;
+		else lowest = bucket.higher;
+		if (bucket.higher != null) bucket.higher.lower = bucket.lower;
+		else highest = bucket.lower;
+	}
+}
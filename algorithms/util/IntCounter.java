@@ -0,0 +1,282 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Counter specialised for primitive int items.
+ * Same config flags and update semantics as {@link Counter}, but items and counts are kept in an open-addressing
+ * (linear probing) table of primitive arrays, so updates never box and never allocate unless the table grows.
+ */
+public class IntCounter {
+	private static final int MIN_CAPACITY = 16; // must be a power of 2
+	private static final int MAX_CAPACITY = 1 << 30; // largest power of 2 an array length can be
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	@FunctionalInterface
+	public interface IntIntConsumer {
+		void accept(int item, int count);
+	}
+
+	private int[] items;
+	private int[] counts;
+	private boolean[] occupied;
+	private int mask; // table length - 1, table length is always a power of 2
+	private int size = 0;
+
+	// config flags
+
+	public final boolean rememberZeroCounts; // if false, will not keep any entries with counts of 0 (sparse representation)
+	public final boolean allowNegativeCounts; // if false, will lock count values to non-negative integers
+
+	public IntCounter() {
+		this(false, false);
+	}
+
+	public IntCounter(boolean allowNegativeCounts, boolean rememberZeroCounts) {
+		this(allowNegativeCounts, rememberZeroCounts, MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expectedItems number of distinct items expected, so the table can be presized to avoid rehashing.
+	 *                      At most 2^29, what a half-full table of the largest power of 2 array length holds.
+	 */
+	public IntCounter(boolean allowNegativeCounts, boolean rememberZeroCounts, int expectedItems) {
+		this.allowNegativeCounts = allowNegativeCounts;
+		this.rememberZeroCounts = rememberZeroCounts;
+		allocate(tableSizeFor(expectedItems));
+	}
+
+	public IntCounter(int... items) {
+		this(false, false, items.length);
+		for (int item : items) {
+			this.incrementCountFor(item);
+		}
+	}
+
+	/**
+	 * Number of items tracked by the counter.
+	 * If {rememberZeroCounts} is false, items with a count of 0 are not tracked.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieve count of given item.
+	 * O(1) expected time.
+	 */
+	public int getCountFor(int item) {
+		int slot = findSlot(item);
+		return occupied[slot] ? counts[slot] : 0;
+	}
+
+	/**
+	 * Increment count of given item.
+	 * O(1) expected time.
+	 *
+	 * @return previous count (0 if no records).
+	 */
+	public int incrementCountFor(int item) {
+		return addToCount(item, 1);
+	}
+
+	/**
+	 * Decrement count of given item.
+	 * O(1) expected time.
+	 *
+	 * @return previous count (0 if no records).
+	 */
+	public int decrementCountFor(int item) {
+		return addToCount(item, -1);
+	}
+
+	/**
+	 * Increases count for given item by delta value.
+	 * Delta can be negative.
+	 * O(1) expected time.
+	 *
+	 * @return previous count (0 if no records).
+	 */
+	public int addToCount(int item, int delta) {
+		int slot = findSlot(item);
+		int prevCount = occupied[slot] ? counts[slot] : 0;
+		int newCount = prevCount + delta;
+		if (!allowNegativeCounts) {
+			newCount = Math.max(0, newCount);
+		}
+		if (!rememberZeroCounts && newCount == 0) {
+			if (occupied[slot]) {
+				removeAt(slot);
+			}
+		} else if (occupied[slot]) {
+			counts[slot] = newCount;
+		} else {
+			occupied[slot] = true;
+			items[slot] = item;
+			counts[slot] = newCount;
+			if (++size > (mask + 1) / 2) { // keep load factor at most 1/2 so probe sequences stay short
+				resize(2 * (mask + 1));
+			}
+		}
+		return prevCount;
+	}
+
+	/**
+	 * Adds every count in other to the count of the same item in this counter.
+	 * This counter's config flags apply to the results, eg. sums are bound to non-negative values if not allowing
+	 * negative values, and items other remembers with 0 counts are only kept if this counter remembers zero counts.
+	 * O(size of other) expected time.
+	 *
+	 * @return this counter, for chaining and use as a combiner.
+	 */
+	public IntCounter merge(IntCounter other) {
+		other.forEach(this::addToCount);
+		return this;
+	}
+
+	/**
+	 * Retrieve a snapshot array of items tracked by the counter, in no particular order.
+	 * If {rememberZeroCounts} is false, this array will not contain items with a count of 0
+	 * even if the item was seen before.
+	 */
+	public int[] getItems() {
+		int[] snapshot = new int[size];
+		int i = 0;
+		for (int slot = 0; slot <= mask; slot++) {
+			if (occupied[slot]) {
+				snapshot[i++] = items[slot];
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Performs the given action for each tracked item and its count, in no particular order.
+	 * Allocates nothing. The counter must not be modified by the action.
+	 * If {rememberZeroCounts} is false, items with a count of 0 are skipped even if the item was seen before.
+	 */
+	public void forEach(IntIntConsumer action) {
+		for (int slot = 0; slot <= mask; slot++) {
+			if (occupied[slot]) {
+				action.accept(items[slot], counts[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Retrieve a snapshot of items and their counts as parallel arrays sorted ascending by item.
+	 * O(n) time.
+	 * If {rememberZeroCounts} is false, this snapshot will not contain items with a count of 0
+	 * even if the item was seen before.
+	 */
+	public SortedCounts exportSorted() {
+		long[] keys = new long[size];
+		int[] itemCounts = new int[size];
+		int i = 0;
+		for (int slot = 0; slot <= mask; slot++) {
+			if (occupied[slot]) {
+				keys[i] = items[slot];
+				itemCounts[i] = counts[slot];
+				i++;
+			}
+		}
+		return new SortedCounts(keys, itemCounts);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int slot = 0; slot <= mask; slot++) {
+			if (occupied[slot]) {
+				if (sb.length() > 1) sb.append(", ");
+				sb.append(items[slot]).append(" -> ").append(counts[slot]);
+			}
+		}
+		return sb.append('}').toString();
+	}
+
+	/**
+	 * Counts the given items on all cores: each worker counts into its own partial counter, then partials are merged.
+	 * Small inputs are counted sequentially, since forking would cost more than it saves.
+	 */
+	public static IntCounter countParallel(int... items) {
+		if (items.length < PARALLEL_THRESHOLD) {
+			return new IntCounter(items);
+		}
+		return Arrays.stream(items).parallel().collect(IntCounter::new, IntCounter::incrementCountFor, IntCounter::merge);
+	}
+
+	// index of the slot holding item, or of the empty slot where it would be inserted
+	private int findSlot(int item) {
+		int slot = hash(item) & mask;
+		while (occupied[slot] && items[slot] != item) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Backward shift deletion: pulls later members of the probe run into the gap so lookups never need tombstones.
+	 */
+	private void removeAt(int slot) {
+		int gap = slot;
+		int next = (gap + 1) & mask;
+		while (occupied[next]) {
+			int home = hash(items[next]) & mask;
+			// item can fill the gap if its home slot is not cyclically within (gap, next]
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				items[gap] = items[next];
+				counts[gap] = counts[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		occupied[gap] = false;
+		size--;
+	}
+
+	private void resize(int newLength) {
+		int[] oldItems = items;
+		int[] oldCounts = counts;
+		boolean[] oldOccupied = occupied;
+		allocate(newLength);
+		for (int i = 0; i < oldItems.length; i++) {
+			if (oldOccupied[i]) {
+				int slot = findSlot(oldItems[i]);
+				occupied[slot] = true;
+				items[slot] = oldItems[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+
+	private void allocate(int length) {
+		items = new int[length];
+		counts = new int[length];
+		occupied = new boolean[length];
+		mask = length - 1;
+	}
+
+	static int tableSizeFor(int expectedItems) {
+		if (expectedItems > MAX_CAPACITY / 2) throw new IllegalArgumentException("Too many expected items: " + expectedItems);
+		int length = MIN_CAPACITY;
+		while (length / 2 < expectedItems) {
+			length <<= 1;
+		}
+		return length;
+	}
+
+	static int hash(int item) {
+		int h = item * 0x9E3779B9; // fibonacci hashing, spreads sequential keys across the table
+		return h ^ (h >>> 16);
+	}
+
+	public static void main(String... args) {
+		IntCounter counter = new IntCounter(true, false);
+		for (int v : new int[]{5, 3, 5, -1, 5, 3}) {
+			counter.incrementCountFor(v);
+		}
+		counter.decrementCountFor(-1);
+		System.out.println(counter + " " + Arrays.toString(counter.getItems()));
+	}
+}
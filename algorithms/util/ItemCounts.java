@@ -0,0 +1,23 @@
+package util;
+
+import java.util.List;
+
+/**
+ * Read side shared by the counters, so callers that only look counts up can switch between
+ * exact ({@link Counter}, {@link ConcurrentCounter}) and approximate ({@link SpaceSavingCounter}) implementations.
+ *
+ * @param <E> must be equals-immutable, otherwise behaviour is undefined.
+ */
+public interface ItemCounts<E> {
+
+	/**
+	 * Retrieve count of given item. Approximate implementations document how far this can be off.
+	 */
+	int getCountFor(E item);
+
+	/**
+	 * Retrieve a snapshot list of counts for each item tracked.
+	 * Changes to either this list or the counter instance will not propagate to each other.
+	 */
+	List<Counter.Entry<E>> getEntries();
+}
@@ -0,0 +1,102 @@
+package util;
+
+/**
+ * Fixed-size log-linear histogram of non-negative values (eg. nanosecond latencies, byte counts).
+ * Each power of 2 range is split into equal sub-buckets, so recorded values keep ~3% relative precision
+ * from 1 up to Long.MAX_VALUE, in a few KB, with O(1) recording and no allocation.
+ * Count, sum, min and max are tracked exactly.
+ * Not thread-safe.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // values below this get one bucket each
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2; // buckets per power of 2 above that
+	private static final int N_BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+	private final long[] counts = new long[N_BUCKETS];
+	private long totalCount = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+
+	/**
+	 * O(1) time. Negative values are recorded as 0.
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		counts[bucketIndex(value)]++;
+		totalCount++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	public long count() {
+		return totalCount;
+	}
+
+	public long min() {
+		return totalCount == 0 ? 0 : min;
+	}
+
+	public long max() {
+		return max;
+	}
+
+	public double mean() {
+		return totalCount == 0 ? 0 : (double) sum / totalCount;
+	}
+
+	/**
+	 * Smallest bucket bound that at least {percentile}% of recorded values are less than or equal to,
+	 * capped at the exact max. 0 if nothing was recorded.
+	 * O(number of buckets) time.
+	 *
+	 * @param percentile in [0, 100]
+	 */
+	public long percentile(double percentile) {
+		if (percentile < 0 || percentile > 100) throw new IllegalArgumentException();
+		if (totalCount == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long seen = 0;
+		for (int i = 0; i < N_BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(max, bucketUpperBound(i));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Adds all values recorded in other to this histogram.
+	 */
+	public void merge(LatencyHistogram other) {
+		for (int i = 0; i < N_BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		// keep the top (SUB_BUCKET_BITS - 1) bits below the leading one as the sub-bucket
+		int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - HALF_SUB_BUCKETS;
+		return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+		long lowerBound = (long) ((index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+}
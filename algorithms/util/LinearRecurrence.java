@@ -0,0 +1,268 @@
+package util;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.RecursiveAction;
+
+import static util.ModularArithmetic.addMod;
+import static util.ModularArithmetic.mulMod;
+
+/**
+ * Streams the terms of a second-order linear recurrence, as used by Code Jam to generate large inputs:
+ * <p>
+ * x[0] = v1, x[1] = v2
+ * x[i] = (a * x[i-1] + b * x[i-2] + c) % m // i >= 2
+ * <p>
+ * Only the last two terms are kept, so any number of terms costs O(1) memory and nothing is boxed.
+ * Single use, like any iterator; create another instance to replay the sequence.
+ * <p>
+ * Terms are computed exactly for any m, without the intermediate products overflowing,
+ * and with Barrett reduction rather than a division per term for m < 2^62.
+ * Any term can also be reached directly in O(log i) (see {@link #seek(long)}), which lets long sequences
+ * be generated in parallel chunks (see {@link #forEachRemainingParallel(TermConsumer)}).
+ * Parameters are non-negative, as Code Jam gives them.
+ */
+public class LinearRecurrence implements PrimitiveIterator.OfLong {
+	private static final int PARALLEL_CHUNK = 1 << 16;
+	private static final long SMALL_MODULUS = 1L << 30; // a * x + b * y + c can't overflow below this
+
+	public final long length;
+	private final long v1;
+	private final long v2;
+	// reduced mod m
+	private final long a;
+	private final long b;
+	private final long c;
+	private final long m;
+	private final boolean small;
+	private final BarrettReducer reducer; // null if m is too large for one
+
+	private long index = 0; // of the next term
+	private long prev1; // x[index-1] mod m, or x[1] before it is reached
+	private long prev2; // x[index-2] mod m, or x[0] before it is reached
+
+	/**
+	 * @param length number of terms to stream
+	 */
+	public LinearRecurrence(long length, long v1, long v2, long a, long b, long c, long m) {
+		if (length < 0) throw new IllegalArgumentException();
+		if (length > 2 && m <= 0) throw new IllegalArgumentException("Modulus must be positive: " + m);
+		this.length = length;
+		this.v1 = v1;
+		this.v2 = v2;
+		this.m = m;
+		this.small = m <= SMALL_MODULUS;
+		this.reducer = m > 0 && m <= BarrettReducer.MAX_MODULUS ? new BarrettReducer(m) : null;
+		if (m > 0) {
+			this.a = Math.floorMod(a, m);
+			this.b = Math.floorMod(b, m);
+			this.c = Math.floorMod(c, m);
+			this.prev2 = Math.floorMod(v1, m);
+			this.prev1 = Math.floorMod(v2, m);
+		} else { // only the first two terms exist
+			this.a = a;
+			this.b = b;
+			this.c = c;
+		}
+	}
+
+	/**
+	 * Terms of the recurrence with parameters in the order Code Jam lists them: v1, v2, a, b, c, m
+	 */
+	public static LinearRecurrence of(long length, long[] params) {
+		return new LinearRecurrence(length, params[0], params[1], params[2], params[3], params[4], params[5]);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return index < length;
+	}
+
+	/**
+	 * O(1) time.
+	 */
+	@Override
+	public long nextLong() {
+		if (index >= length) throw new NoSuchElementException();
+		long term;
+		if (index == 0) {
+			term = v1;
+		} else if (index == 1) {
+			term = v2;
+		} else {
+			term = step(prev1, prev2);
+			prev2 = prev1;
+			prev1 = term;
+		}
+		index++;
+		return term;
+	}
+
+	/**
+	 * Moves to term i, so it is the next one returned. Can seek backwards too.
+	 * O(log i) time.
+	 */
+	public void seek(long i) {
+		if (i < 0 || i > length) throw new IndexOutOfBoundsException("Term " + i + " of " + length);
+		index = i;
+		if (i <= 2) {
+			if (m <= 0) return; // no further terms to compute
+			prev2 = Math.floorMod(v1, m);
+			prev1 = Math.floorMod(v2, m);
+		} else {
+			long[] state = stateAt(i - 1);
+			prev1 = state[0];
+			prev2 = state[1];
+		}
+	}
+
+	/**
+	 * Term i, without moving.
+	 * O(log i) time.
+	 */
+	public long term(long i) {
+		if (i < 0 || i >= length) throw new IndexOutOfBoundsException("Term " + i + " of " + length);
+		if (i == 0) return v1;
+		if (i == 1) return v2;
+		return stateAt(i)[0];
+	}
+
+	/**
+	 * Remaining terms, materialized. Long sequences are generated in parallel.
+	 */
+	public long[] toArray() {
+		long[] terms = new long[remainingAsInt()];
+		forEachRemainingParallel((offset, term) -> terms[offset] = term);
+		return terms;
+	}
+
+	/**
+	 * Consumer of a term at given offset from where generation started
+	 */
+	@FunctionalInterface
+	public interface TermConsumer {
+		void accept(int offset, long term);
+	}
+
+	/**
+	 * Passes every remaining term to action, in chunks generated in parallel on the common ForkJoinPool.
+	 * Each chunk seeks to its start, so the whole costs O(n + n / chunk * log n) work.
+	 * Action is called concurrently, in no particular order, once per offset.
+	 * Sequences of a single chunk are generated on the calling thread.
+	 */
+	public void forEachRemainingParallel(TermConsumer action) {
+		int remaining = remainingAsInt();
+		if (remaining <= PARALLEL_CHUNK) {
+			for (int offset = 0; offset < remaining; offset++) {
+				action.accept(offset, nextLong());
+			}
+			return;
+		}
+		new ChunkTask(v1, v2, a, b, c, m, index, 0, remaining, action).invoke();
+		index = length;
+	}
+
+	// static, as RecursiveAction is Serializable and LinearRecurrence is not: carries the parameters instead
+	private static class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final long v1;
+		private final long v2;
+		private final long a;
+		private final long b;
+		private final long c;
+		private final long m;
+		private final long start; // term at offset 0
+		private final int from;
+		private final int to;
+		private final TermConsumer action;
+
+		ChunkTask(long v1, long v2, long a, long b, long c, long m, long start, int from, int to, TermConsumer action) {
+			this.v1 = v1;
+			this.v2 = v2;
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.m = m;
+			this.start = start;
+			this.from = from;
+			this.to = to;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_CHUNK) {
+				LinearRecurrence chunk = new LinearRecurrence(start + to, v1, v2, a, b, c, m);
+				chunk.seek(start + from);
+				for (int offset = from; offset < to; offset++) {
+					action.accept(offset, chunk.nextLong());
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(half(from, mid), half(mid, to));
+		}
+
+		private ChunkTask half(int from, int to) {
+			return new ChunkTask(v1, v2, a, b, c, m, start, from, to, action);
+		}
+	}
+
+	private int remainingAsInt() {
+		long remaining = length - index;
+		if (remaining > Integer.MAX_VALUE) throw new IllegalStateException("Too many terms for an array: " + remaining);
+		return (int) remaining;
+	}
+
+	private long step(long x1, long x2) {
+		if (small) {
+			return reducer.reduce(a * x1 + b * x2 + c);
+		}
+		return addMod(addMod(mul(a, x1), mul(b, x2), m), c, m);
+	}
+
+	private long mul(long x, long y) {
+		return reducer != null ? reducer.mulMod(x, y) : mulMod(x, y, m);
+	}
+
+	// [x[i] mod m, x[i-1] mod m] for i >= 1: (x[i], x[i-1], 1) = T^(i-1) * (x[1], x[0], 1),
+	// with T = [[a, b, c], [1, 0, 0], [0, 0, 1]]
+	private long[] stateAt(long i) {
+		long[][] power = matrixPower(new long[][]{{a, b, c}, {1 % m, 0, 0}, {0, 0, 1 % m}}, i - 1);
+		long x1 = Math.floorMod(v2, m);
+		long x0 = Math.floorMod(v1, m);
+		long[] state = new long[2];
+		for (int row = 0; row < 2; row++) {
+			state[row] = addMod(addMod(mul(power[row][0], x1), mul(power[row][1], x0), m), power[row][2], m);
+		}
+		return state;
+	}
+
+	// by repeated squaring
+	private long[][] matrixPower(long[][] base, long exponent) {
+		long[][] result = {{1 % m, 0, 0}, {0, 1 % m, 0}, {0, 0, 1 % m}};
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = multiply(result, base);
+			}
+			base = multiply(base, base);
+			exponent >>= 1;
+		}
+		return result;
+	}
+
+	private long[][] multiply(long[][] p, long[][] q) {
+		long[][] product = new long[3][3];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				long sum = 0;
+				for (int k = 0; k < 3; k++) {
+					sum = addMod(sum, mul(p[i][k], q[k][j]), m);
+				}
+				product[i][j] = sum;
+			}
+		}
+		return product;
+	}
+}
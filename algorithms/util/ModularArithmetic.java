@@ -0,0 +1,119 @@
+package util;
+
+/**
+ * Overflow-safe arithmetic modulo any positive long m.
+ * Operands are expected reduced, ie. in [0, m).
+ * <p>
+ * For many reductions by the same modulus, {@link BarrettReducer} and {@link MontgomeryReducer}
+ * avoid the division these pay for each time.
+ */
+public class ModularArithmetic {
+	private static final long INT_BITS_MASK = ~0x7FFFFFFFL;
+
+	/**
+	 * (a + b) mod m without overflowing, even for m close to Long.MAX_VALUE.
+	 * O(1) time.
+	 */
+	public static long addMod(long a, long b, long m) {
+		return a >= m - b ? a - (m - b) : a + b;
+	}
+
+	/**
+	 * (a * b) mod m, exact for any m. Products of operands below 2^31 take a single division;
+	 * larger ones are reduced from the full 128-bit product.
+	 * O(1) time.
+	 */
+	public static long mulMod(long a, long b, long m) {
+		if (((a | b) & INT_BITS_MASK) == 0) { // product fits in 62 bits
+			return a * b % m;
+		}
+		// a, b < m < 2^63, so the high half of the product is below m, as remainder128 needs
+		return remainder128(Math.multiplyHigh(a, b), a * b, m);
+	}
+
+	/**
+	 * base^exponent mod m, by repeated squaring.
+	 * O(log exponent) time.
+	 */
+	public static long powMod(long base, long exponent, long m) {
+		if (exponent < 0) throw new IllegalArgumentException("Negative exponent: " + exponent);
+		if ((m & 1) == 1 && m > Integer.MAX_VALUE && m <= MontgomeryReducer.MAX_MODULUS) {
+			return new MontgomeryReducer(m).powMod(base, exponent); // saves a 128-bit division per step
+		}
+		long result = 1 % m;
+		base = Math.floorMod(base, m);
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = mulMod(result, base, m);
+			}
+			base = mulMod(base, base, m);
+			exponent >>= 1;
+		}
+		return result;
+	}
+
+	/**
+	 * x such that (a * x) mod m = 1, by the extended Euclidean algorithm.
+	 * O(log m) time.
+	 *
+	 * @throws ArithmeticException if a and m are not coprime
+	 */
+	public static long modInverse(long a, long m) {
+		if (m <= 0) throw new IllegalArgumentException("Modulus must be positive: " + m);
+		// invariant: x * a = r (mod m) for both (r, x) pairs
+		long r0 = m, x0 = 0;
+		long r1 = Math.floorMod(a, m), x1 = 1;
+		while (r1 != 0) {
+			long q = r0 / r1;
+			long r2 = r0 - q * r1;
+			long x2 = x0 - q * x1; // |x| stays below m, so this can't overflow
+			r0 = r1;
+			x0 = x1;
+			r1 = r2;
+			x1 = x2;
+		}
+		if (r0 != 1) throw new ArithmeticException(a + " has no inverse mod " + m);
+		return Math.floorMod(x0, m);
+	}
+
+	/**
+	 * High 64 bits of the unsigned 128-bit product of a and b
+	 */
+	static long unsignedMultiplyHigh(long a, long b) {
+		return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+	}
+
+	/**
+	 * (hi * 2^64 + lo) mod m, for unsigned hi < m, lo and m > 0.
+	 * Long division of the normalized 128-bit value by m, one 32-bit digit at a time
+	 * (Hacker's Delight, divlu).
+	 */
+	static long remainder128(long hi, long lo, long m) {
+		final long base = 1L << 32;
+		int shift = Long.numberOfLeadingZeros(m);
+		long divisor = m << shift;
+		long divisorHigh = divisor >>> 32;
+		long divisorLow = divisor & 0xFFFFFFFFL;
+		long numerHigh = shift == 0 ? hi : (hi << shift) | (lo >>> (64 - shift));
+		long numerLow = lo << shift;
+		long digit1 = numerLow >>> 32;
+		long digit0 = numerLow & 0xFFFFFFFFL;
+
+		long partial = remainderStep(numerHigh, digit1, divisor, divisorHigh, divisorLow, base);
+		long remainder = remainderStep(partial, digit0, divisor, divisorHigh, divisorLow, base);
+		return remainder >>> shift;
+	}
+
+	// (numer * 2^32 + digit) mod divisor, where numer < divisor and divisor is normalized (top bit set)
+	private static long remainderStep(long numer, long digit, long divisor, long divisorHigh, long divisorLow, long base) {
+		long quotient = Long.divideUnsigned(numer, divisorHigh);
+		long rHat = numer - quotient * divisorHigh;
+		// estimate is at most 2 too large
+		while (quotient >= base || Long.compareUnsigned(quotient * divisorLow, rHat * base + digit) > 0) {
+			quotient--;
+			rHat += divisorHigh;
+			if (rHat >= base) break;
+		}
+		return numer * base + digit - quotient * divisor;
+	}
+}
@@ -0,0 +1,77 @@
+package util;
+
+import java.util.Arrays;
+
+import static util.ModularArithmetic.mulMod;
+import static util.ModularArithmetic.powMod;
+
+/**
+ * Binomial coefficients nCk mod a prime p, from factorial and inverse factorial tables:
+ * <p>
+ * nCk = n! * (k!)^-1 * ((n-k)!)^-1 mod p
+ * <p>
+ * Tables grow on demand to the largest n asked for, doubling each time, so lookups cost amortized O(1).
+ * Only n < p is supported, as n! is 0 mod p beyond that. Not thread-safe.
+ */
+public class ModularBinomial {
+	private static final int INITIAL_SIZE = 64;
+
+	public final long p;
+	private long[] factorial = {1};
+	private long[] inverseFactorial = {1};
+
+	/**
+	 * @param p a prime
+	 */
+	public ModularBinomial(long p) {
+		if (p < 2) throw new IllegalArgumentException("Not a prime: " + p);
+		this.p = p;
+	}
+
+	/**
+	 * Builds tables for n up to maxN upfront
+	 */
+	public ModularBinomial(long p, int maxN) {
+		this(p);
+		ensureCapacity(maxN);
+	}
+
+	/**
+	 * nCk mod p, 0 if k < 0 or k > n.
+	 * Amortized O(1) time.
+	 */
+	public long nCk(int n, int k) {
+		if (n < 0) throw new IllegalArgumentException("Negative n: " + n);
+		if (k < 0 || k > n) return 0;
+		ensureCapacity(n);
+		return mulMod(mulMod(factorial[n], inverseFactorial[k], p), inverseFactorial[n - k], p);
+	}
+
+	/**
+	 * n! mod p.
+	 * Amortized O(1) time.
+	 */
+	public long factorial(int n) {
+		if (n < 0) throw new IllegalArgumentException("Negative n: " + n);
+		ensureCapacity(n);
+		return factorial[n];
+	}
+
+	private void ensureCapacity(int n) {
+		int oldSize = factorial.length;
+		if (n < oldSize) return;
+		if (n >= p) throw new IllegalArgumentException("n! is 0 mod p for n = " + n + ", p = " + p);
+		int newSize = (int) Math.min(Math.max(n + 1L, Math.max(INITIAL_SIZE, 2L * oldSize)), Math.min(p, Integer.MAX_VALUE - 8));
+		factorial = Arrays.copyOf(factorial, newSize);
+		inverseFactorial = Arrays.copyOf(inverseFactorial, newSize);
+		for (int i = oldSize; i < newSize; i++) {
+			factorial[i] = mulMod(factorial[i - 1], i, p);
+		}
+		// one modular inverse (Fermat's little theorem) for the top, then (i-1)!^-1 = i!^-1 * i downwards
+		int top = newSize - 1;
+		inverseFactorial[top] = powMod(factorial[top], p - 2, p);
+		for (int i = top; i > oldSize; i--) {
+			inverseFactorial[i - 1] = mulMod(inverseFactorial[i], i, p);
+		}
+	}
+}
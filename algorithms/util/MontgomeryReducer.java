@@ -0,0 +1,76 @@
+package util;
+
+import static util.ModularArithmetic.unsignedMultiplyHigh;
+
+/**
+ * Multiplication modulo a fixed odd m < 2^62 in Montgomery form (x * 2^64 mod m), where a product is
+ * reduced with two multiplications and a shift instead of a division.
+ * <p>
+ * Converting in and out costs a multiplication each, so it pays off for long chains of products
+ * such as {@link #powMod(long, long)}, with values kept in Montgomery form throughout.
+ */
+public class MontgomeryReducer {
+	public static final long MAX_MODULUS = (1L << 62) - 1; // so sums in reduce() can't overflow
+
+	public final long m;
+	private final long negInverse; // -m^-1 mod 2^64
+	private final long rSquared; // 2^128 mod m
+
+	public MontgomeryReducer(long m) {
+		if (m < 1 || m > MAX_MODULUS || (m & 1) == 0) throw new IllegalArgumentException("Modulus must be odd and below 2^62: " + m);
+		this.m = m;
+		// Newton's iteration doubles the correct low bits each step: 3 (m * m = 1 mod 8) -> 6 -> ... -> 96
+		long inverse = m;
+		for (int i = 0; i < 5; i++) {
+			inverse *= 2 - m * inverse;
+		}
+		this.negInverse = -inverse;
+		long r = (Long.remainderUnsigned(-1L, m) + 1) % m; // 2^64 mod m
+		this.rSquared = ModularArithmetic.mulMod(r, r, m);
+	}
+
+	/**
+	 * Montgomery form of x, for x in [0, m).
+	 */
+	public long toMontgomery(long x) {
+		return multiply(x, rSquared);
+	}
+
+	public long fromMontgomery(long x) {
+		return reduce(0, x);
+	}
+
+	/**
+	 * Product of a and b in Montgomery form, itself in Montgomery form.
+	 * O(1) time.
+	 */
+	public long multiply(long a, long b) {
+		return reduce(Math.multiplyHigh(a, b), a * b);
+	}
+
+	/**
+	 * base^exponent mod m, taking and returning ordinary values in [0, m).
+	 * O(log exponent) time.
+	 */
+	public long powMod(long base, long exponent) {
+		if (exponent < 0) throw new IllegalArgumentException("Negative exponent: " + exponent);
+		long result = toMontgomery(1 % m);
+		base = toMontgomery(Math.floorMod(base, m));
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = multiply(result, base);
+			}
+			base = multiply(base, base);
+			exponent >>= 1;
+		}
+		return fromMontgomery(result);
+	}
+
+	// (hi * 2^64 + lo) * 2^-64 mod m, for a value below m * 2^64
+	private long reduce(long hi, long lo) {
+		long q = lo * negInverse; // lo + q * m is divisible by 2^64
+		// low halves sum to 0 mod 2^64, carrying exactly when lo != 0
+		long r = hi + unsignedMultiplyHigh(q, m) + (lo != 0 ? 1 : 0);
+		return r >= m ? r - m : r;
+	}
+}
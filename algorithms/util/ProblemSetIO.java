@@ -1,12 +1,19 @@
 package util;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 public class ProblemSetIO {
 
@@ -19,34 +26,186 @@ public class ProblemSetIO {
 	}
 
 	/**
-	 * Handles test case iteration and logging
+	 * Handler reading through {@link FastInput}, for inputs large enough that Scanner dominates runtime.
+	 */
+	@FunctionalInterface
+	public interface FastTestCaseHandler {
+		/**
+		 * @param t test case id (1-indexed)
+		 */
+		void handleCase(int t, FastInput in, PrintStream out);
+	}
+
+	/**
+	 * Handler split into reading and solving, so independent cases can be solved concurrently.
+	 */
+	@FunctionalInterface
+	public interface ParallelTestCaseHandler {
+		/**
+		 * Reads this case's input. Called on the reading thread, in case order.
+		 *
+		 * @param t test case id (1-indexed)
+		 * @return work that solves the case from what was read, run on an executor thread.
+		 * Its result is printed after "Case #t: ".
+		 */
+		Supplier<?> readCase(int t, FastInput in);
+	}
+
+	/**
+	 * Handles test case iteration and logging.
+	 * Output is batched in memory and written out in large chunks, see {@link BatchedOutputStream}.
+	 * Per-case metrics are written next to the output file, see {@link CaseMetrics#writeReports(Path)}.
 	 */
 	public static void googleCodeJamFileIO(Path inFile, Path outFile, TestCaseHandler handler) throws IOException {
-		Scanner in = new Scanner(inFile);
-		PrintStream out = new PrintStream(new FileOutputStream(outFile.toFile()));
-		googleCodeJam(in, out, handler);
+		CaseMetrics metrics;
+		try (Scanner in = new Scanner(inFile); PrintStream out = openOutput(outFile)) {
+			metrics = googleCodeJam(in, out, handler);
+			checkWritten(out, outFile);
+		}
+		report(metrics, outFile);
 	}
 
 	public static void googleCodeJamSTDIO(TestCaseHandler handler) {
 		System.out.println("Enter input to stdin");
-		googleCodeJam(new Scanner(System.in), System.out, handler);
+		report(googleCodeJam(new Scanner(System.in), System.out, handler), null);
+	}
+
+	/**
+	 * Same as {@link #googleCodeJamFileIO}, but parses the memory-mapped input file with {@link FastInput}
+	 */
+	public static void googleCodeJamFastFileIO(Path inFile, Path outFile, FastTestCaseHandler handler) throws IOException {
+		CaseMetrics metrics;
+		try (FastInput in = FastInput.mapped(inFile); PrintStream out = openOutput(outFile)) {
+			metrics = googleCodeJam(in, out, handler);
+			checkWritten(out, outFile);
+		}
+		report(metrics, outFile);
+	}
+
+	public static void googleCodeJamFastSTDIO(FastTestCaseHandler handler) {
+		System.out.println("Enter input to stdin");
+		report(googleCodeJam(new FastInput(System.in), System.out, handler), null);
+	}
+
+	/**
+	 * Solves cases on a fixed pool with one thread per core, see
+	 * {@link #googleCodeJamParallelFileIO(Path, Path, ExecutorService, ParallelTestCaseHandler)}
+	 */
+	public static void googleCodeJamParallelFileIO(Path inFile, Path outFile, ParallelTestCaseHandler handler) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			googleCodeJamParallelFileIO(inFile, outFile, executor, handler);
+		} finally {
+			executor.shutdown();
+		}
 	}
 
-	private static void googleCodeJam(Scanner in, PrintStream out, TestCaseHandler handler) {
+	/**
+	 * Reads cases in order on the calling thread and solves them on the given executor
+	 * (eg. a fixed pool, or one virtual thread per task where available).
+	 * Outputs are written in case order regardless of which case finishes first.
+	 * Caller keeps ownership of the executor.
+	 * Per-case metrics cover solving only, measured on the executor thread that solved the case,
+	 * and count only that thread's allocations, as other threads may be solving other cases meanwhile.
+	 */
+	public static void googleCodeJamParallelFileIO(Path inFile, Path outFile, ExecutorService executor,
+	                                               ParallelTestCaseHandler handler) throws IOException {
+		CaseMetrics metrics;
+		try (FastInput in = FastInput.mapped(inFile); PrintStream out = openOutput(outFile)) {
+			metrics = googleCodeJamParallel(in, out, executor, handler);
+			checkWritten(out, outFile);
+		}
+		report(metrics, outFile);
+	}
+
+	// no autoflush, so lines only reach the file once a batch fills up or the stream is closed
+	private static PrintStream openOutput(Path outFile) throws IOException {
+		return new PrintStream(new BatchedOutputStream(outFile));
+	}
+
+	// PrintStream swallows write errors, so surface them instead of leaving a silently truncated output
+	private static void checkWritten(PrintStream out, Path outFile) throws IOException {
+		if (out.checkError()) throw new IOException("Failed writing " + outFile);
+	}
+
+	private static CaseMetrics googleCodeJamParallel(FastInput in, PrintStream out, ExecutorService executor,
+	                                                 ParallelTestCaseHandler handler) {
 		int T = in.nextInt();
+		CaseMetrics metrics = new CaseMetrics(T, true);
+		// bounds how many read-but-unwritten cases are held in memory, while keeping every worker busy
+		int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+		Deque<Future<?>> inFlight = new ArrayDeque<>();
+		long startTime = System.nanoTime();
+		int nextToWrite = 1;
+		for (int t = 1; t <= T; t++) {
+			int caseId = t;
+			Supplier<?> solver = handler.readCase(t, in);
+			inFlight.add(executor.submit(() -> metrics.measureResult(caseId, solver)));
+			while (inFlight.size() >= maxInFlight) {
+				writeResult(nextToWrite++, inFlight.poll(), out, startTime);
+			}
+		}
+		while (!inFlight.isEmpty()) {
+			writeResult(nextToWrite++, inFlight.poll(), out, startTime);
+		}
+		return metrics;
+	}
+
+	// blocks until case t is solved
+	private static void writeResult(int t, Future<?> result, PrintStream out, long startTime) {
+		try {
+			out.println("Case #" + t + ": " + result.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for case " + t, e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Case " + t + " failed", e.getCause());
+		}
+		if (t % 5 == 0) {
+			double elapsedTime = (System.nanoTime() - startTime) / 1e9;
+			System.out.println("Cases 1-" + t + " written, time elapsed: " + elapsedTime + "s");
+		}
+	}
+
+	private static CaseMetrics googleCodeJam(Scanner in, PrintStream out, TestCaseHandler handler) {
+		return runCases(in.nextInt(), t -> handler.handleCase(t, in, out));
+	}
+
+	private static CaseMetrics googleCodeJam(FastInput in, PrintStream out, FastTestCaseHandler handler) {
+		return runCases(in.nextInt(), t -> handler.handleCase(t, in, out));
+	}
+
+	private static CaseMetrics runCases(int T, IntConsumer runCase) {
+		CaseMetrics metrics = new CaseMetrics(T);
 		long startTime = 0;
 		for (int t = 1; t <= T; t++) {
 			if (t % 5 == 1) {
 				System.out.println("Test case " + t + " start! " + LocalTime.now());
 				startTime = System.nanoTime();
 			}
-			handler.handleCase(t, in, out);
+			int caseId = t;
+			metrics.measure(t, () -> runCase.accept(caseId));
 			if (t % 5 == 0) {
-				double elapsedTime = ((double) System.nanoTime() - startTime) / 10e9;
+				double elapsedTime = ((double) System.nanoTime() - startTime) / 1e9;
 				System.out.println("Case time elapsed: " + elapsedTime + "s");
 				System.out.println();
 			}
 		}
+		return metrics;
+	}
+
+	/**
+	 * Prints the metrics summary, and writes reports next to the output file if there is one.
+	 */
+	private static void report(CaseMetrics metrics, Path outFile) {
+		System.out.println(metrics.summary());
+		if (outFile != null) {
+			try {
+				metrics.writeReports(outFile);
+			} catch (IOException e) { // losing the metrics shouldn't fail a run whose outputs are already written
+				System.err.println("Could not write metrics reports: " + e);
+			}
+		}
 	}
 
 	public static Path askForInputFile() {
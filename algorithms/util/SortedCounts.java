@@ -0,0 +1,99 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of a counter's items and counts as parallel primitive arrays, sorted ascending by item key.
+ * counts[i] is the count of keys[i]. Changes to the arrays and the counter will not propagate to each other.
+ */
+public final class SortedCounts {
+	private static final int INSERTION_SORT_THRESHOLD = 64;
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+
+	public final long[] keys;
+	public final int[] counts;
+
+	/**
+	 * Takes ownership of the given arrays and sorts them in place by key.
+	 */
+	SortedCounts(long[] keys, int[] counts) {
+		if (keys.length != counts.length) throw new IllegalArgumentException();
+		this.keys = keys;
+		this.counts = counts;
+		sortByKey(keys, counts);
+	}
+
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * Sorts both arrays by keys, moving counts along with their keys.
+	 * LSD radix sort on the keys, one byte per pass: O(n) time, O(n) extra space.
+	 * Passes where every key has the same byte are skipped, so narrow key ranges only pay for the bytes that vary.
+	 */
+	static void sortByKey(long[] keys, int[] counts) {
+		int n = keys.length;
+		if (n < INSERTION_SORT_THRESHOLD) {
+			insertionSortByKey(keys, counts);
+			return;
+		}
+		long[] srcKeys = keys;
+		int[] srcCounts = counts;
+		long[] dstKeys = new long[n];
+		int[] dstCounts = new int[n];
+		int[] bucketStarts = new int[RADIX];
+		for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+			Arrays.fill(bucketStarts, 0);
+			for (long key : srcKeys) {
+				bucketStarts[digit(key, shift)]++;
+			}
+			if (bucketStarts[digit(srcKeys[0], shift)] == n) {
+				continue; // all keys share this byte, pass would not move anything
+			}
+			int start = 0;
+			for (int b = 0; b < RADIX; b++) { // bucket sizes -> bucket start indices
+				int bucketSize = bucketStarts[b];
+				bucketStarts[b] = start;
+				start += bucketSize;
+			}
+			for (int i = 0; i < n; i++) {
+				int dst = bucketStarts[digit(srcKeys[i], shift)]++;
+				dstKeys[dst] = srcKeys[i];
+				dstCounts[dst] = srcCounts[i];
+			}
+			// swap buffers, sorted output of this pass is the input of the next
+			long[] tmpKeys = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = tmpKeys;
+			int[] tmpCounts = srcCounts;
+			srcCounts = dstCounts;
+			dstCounts = tmpCounts;
+		}
+		if (srcKeys != keys) { // odd number of passes ran, result is sitting in the scratch buffers
+			System.arraycopy(srcKeys, 0, keys, 0, n);
+			System.arraycopy(srcCounts, 0, counts, 0, n);
+		}
+	}
+
+	private static void insertionSortByKey(long[] keys, int[] counts) {
+		for (int i = 1; i < keys.length; i++) {
+			long key = keys[i];
+			int count = counts[i];
+			int j = i - 1;
+			while (j >= 0 && keys[j] > key) {
+				keys[j + 1] = keys[j];
+				counts[j + 1] = counts[j];
+				j--;
+			}
+			keys[j + 1] = key;
+			counts[j + 1] = count;
+		}
+	}
+
+	// flipping the sign bit makes unsigned byte order match signed key order
+	private static int digit(long key, int shift) {
+		return (int) (((key ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1));
+	}
+}
@@ -0,0 +1,188 @@
+package util;
+
+import java.util.*;
+
+/**
+ * Bounded-memory approximate counter for high-cardinality streams.
+ * Memory stays fixed however many distinct items arrive:
+ * - Space-Saving keeps exact-or-over counts for at most {capacity} monitored items, which always include
+ * every item whose true count exceeds (total count) / capacity. When full, a new item replaces the monitored item
+ * with the smallest count and inherits that count as its error.
+ * - A {@link CountMinSketch} alongside gives point estimates for items that are not monitored.
+ * <p>
+ * All counts reported are upper bounds on the true counts. Only non-negative deltas are supported.
+ *
+ * @param <E> must be equals-immutable, otherwise behaviour is undefined.
+ */
+public class SpaceSavingCounter<E> implements ItemCounts<E> {
+	private static final double DEFAULT_CONFIDENCE = 0.99;
+
+	public final int capacity;
+
+	// monitored items live in slots; the min-heap over slots (by count) finds the replacement victim in O(1)
+	private final Object[] items;
+	private final int[] counts; // estimated count, never less than the true count
+	private final int[] errors; // max overcount in counts[slot], ie. count the item inherited on replacing a victim
+	private final int[] heap; // slot ids, heap ordered by counts
+	private final int[] heapPosOf; // slot id -> index in heap
+	private final Map<E, Integer> slotOf; // never holds more than capacity entries
+	private int size = 0;
+
+	private final CountMinSketch<E> sketch;
+
+	/**
+	 * Sketch error defaults to the same (total count) / capacity bound that Space-Saving gives monitored items.
+	 */
+	public SpaceSavingCounter(int capacity) {
+		this(capacity, 1.0 / Math.max(2, capacity), DEFAULT_CONFIDENCE);
+	}
+
+	/**
+	 * @param capacity   max number of monitored items (the top-K tracked)
+	 * @param epsilon    max overcount of point estimates for unmonitored items, as a fraction of the total count
+	 * @param confidence probability that a point estimate is within the epsilon bound
+	 */
+	public SpaceSavingCounter(int capacity, double epsilon, double confidence) {
+		if (capacity <= 0) throw new IllegalArgumentException();
+		this.capacity = capacity;
+		this.items = new Object[capacity];
+		this.counts = new int[capacity];
+		this.errors = new int[capacity];
+		this.heap = new int[capacity];
+		this.heapPosOf = new int[capacity];
+		this.slotOf = new HashMap<>(2 * capacity);
+		this.sketch = new CountMinSketch<>(epsilon, confidence);
+	}
+
+	/**
+	 * Estimated count of given item: the tightest upper bound available from Space-Saving and the sketch.
+	 * O(sketch depth) time.
+	 */
+	@Override
+	public int getCountFor(E item) {
+		Integer slot = slotOf.get(item);
+		// if the table never filled up nothing was ever evicted, so an unmonitored item was never seen
+		int spaceSavingBound = slot != null ? counts[slot] : size < capacity ? 0 : counts[heap[0]];
+		return Math.min(spaceSavingBound, sketch.getCountFor(item));
+	}
+
+	/**
+	 * Count that the given item is guaranteed to have reached. 0 if the item is not monitored.
+	 * O(1) time.
+	 */
+	public int getGuaranteedCountFor(E item) {
+		Integer slot = slotOf.get(item);
+		return slot == null ? 0 : counts[slot] - errors[slot];
+	}
+
+	public int incrementCountFor(E item) {
+		return addToCount(item, 1);
+	}
+
+	/**
+	 * Increases count for given item by delta value.
+	 * O(log(capacity) + sketch depth) time.
+	 *
+	 * @return previous estimated count.
+	 * @throws IllegalArgumentException if delta is negative
+	 */
+	public int addToCount(E item, int delta) {
+		if (delta < 0) throw new IllegalArgumentException("Space-Saving only supports non-negative deltas");
+		int prevCount = getCountFor(item);
+		sketch.addToCount(item, delta);
+		Integer slot = slotOf.get(item);
+		if (slot == null) {
+			if (size < capacity) { // free slot, item starts out exact
+				slot = size++;
+				heap[slot] = slot;
+				heapPosOf[slot] = slot;
+				counts[slot] = 0;
+				errors[slot] = 0;
+				siftUp(slot);
+			} else { // replace the item with the smallest count, which becomes the newcomer's error
+				slot = heap[0];
+				slotOf.remove(itemAt(slot));
+				errors[slot] = counts[slot];
+			}
+			items[slot] = item;
+			slotOf.put(item, slot);
+		}
+		counts[slot] = (int) Math.min(Integer.MAX_VALUE, (long) counts[slot] + delta);
+		siftDown(heapPosOf[slot]);
+		return prevCount;
+	}
+
+	/**
+	 * Max overcount of any monitored item's count: the smallest monitored count, which is at most
+	 * (total count) / capacity.
+	 */
+	public int errorBound() {
+		return size < capacity ? 0 : counts[heap[0]];
+	}
+
+	/**
+	 * Sum of all deltas added so far.
+	 */
+	public long totalCount() {
+		return sketch.totalCount();
+	}
+
+	/**
+	 * Retrieve a snapshot list of the monitored items (the approximate top-{capacity}) and their estimated counts,
+	 * largest first.
+	 */
+	@Override
+	public List<Counter.Entry<E>> getEntries() {
+		List<Counter.Entry<E>> entries = new ArrayList<>(size);
+		for (int slot = 0; slot < size; slot++) {
+			entries.add(new Counter.Entry<>(itemAt(slot), Math.min(counts[slot], sketch.getCountFor(itemAt(slot)))));
+		}
+		entries.sort(Comparator.comparingInt((Counter.Entry<E> e) -> e.count).reversed());
+		return entries;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E itemAt(int slot) {
+		return (E) items[slot];
+	}
+
+	// heap index ops, keeping heapPosOf in sync
+
+	private void siftUp(int pos) {
+		int slot = heap[pos];
+		while (pos > 0) {
+			int parent = (pos - 1) / 2;
+			if (counts[heap[parent]] <= counts[slot]) break;
+			place(heap[parent], pos);
+			pos = parent;
+		}
+		place(slot, pos);
+	}
+
+	private void siftDown(int pos) {
+		int slot = heap[pos];
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= size) break;
+			if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) child++;
+			if (counts[slot] <= counts[heap[child]]) break;
+			place(heap[child], pos);
+			pos = child;
+		}
+		place(slot, pos);
+	}
+
+	private void place(int slot, int pos) {
+		heap[pos] = slot;
+		heapPosOf[slot] = pos;
+	}
+
+	public static void main(String... args) {
+		SpaceSavingCounter<Integer> counter = new SpaceSavingCounter<>(5);
+		Random random = new Random(0);
+		for (int i = 0; i < 100_000; i++) { // zipf-ish: value k is drawn with probability 1/k - 1/(k+1)
+			counter.incrementCountFor((int) (1 / (1 - random.nextDouble())));
+		}
+		System.out.println(counter.getEntries() + " +/- " + counter.errorBound());
+	}
+}
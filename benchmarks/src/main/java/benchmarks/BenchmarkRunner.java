@@ -0,0 +1,33 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Same command line as JMH's own runner, except results are written as JSON
+ * to jmh-result-{timestamp}.json unless a result format or file is given, so every run leaves a file that
+ * can be compared against earlier runs (eg. with jmh.morethan.io or the JMH Visualizer).
+ * <p>
+ * eg. java -jar benchmarks/target/benchmarks.jar SegmentTree -p size=1000
+ */
+public class BenchmarkRunner {
+
+	public static void main(String... args) throws Exception {
+		List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+		if (!jmhArgs.contains("-rf")) {
+			jmhArgs.add("-rf");
+			jmhArgs.add("json");
+		}
+		if (!jmhArgs.contains("-rff")) {
+			String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+			jmhArgs.add("-rff");
+			jmhArgs.add("jmh-result-" + timestamp + ".json");
+		}
+		Main.main(jmhArgs.toArray(new String[0]));
+	}
+}
@@ -0,0 +1,29 @@
+package benchmarks;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Claimed asymptotic cost of an operation, as a function of input size n.
+ */
+public enum Complexity {
+	CONSTANT("O(1)", n -> 1),
+	LOG("O(log n)", n -> Math.log(n)),
+	LINEAR("O(n)", n -> n),
+	N_LOG_N("O(n log n)", n -> n * Math.log(n)),
+	QUADRATIC("O(n^2)", n -> (double) n * n);
+
+	public final String notation;
+	private final IntToDoubleFunction growth;
+
+	Complexity(String notation, IntToDoubleFunction growth) {
+		this.notation = notation;
+		this.growth = growth;
+	}
+
+	/**
+	 * Claimed cost at size n, up to a constant factor.
+	 */
+	public double growth(int n) {
+		return growth.applyAsDouble(n);
+	}
+}
@@ -0,0 +1,188 @@
+package benchmarks;
+
+import intervals.IntervalsScaling;
+import sequences.SequencesScaling;
+import trees.TreesScaling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Checks operations against their claimed complexity by timing them at doubling input sizes.
+ * <p>
+ * For each check, the time per operation at every size is divided by the claimed growth, and a least squares line
+ * is fitted to log(time / claimed growth) against log(n). An operation that scales as claimed leaves a flat line;
+ * the slope left over (the excess exponent) is how much faster than claimed it grows, eg. ~1 for an O(n)
+ * operation that claims O(log n). Checks fail when the excess exponent is above {@link #TOLERANCE},
+ * which leaves room for cache effects at larger sizes.
+ * The plain log-log slope (the measured exponent) is reported alongside.
+ * <p>
+ * Each size is timed as the best of a few trials, each repeating the operation for a fixed time,
+ * after an untimed trial so the JIT has compiled it. Setup for a size is never timed.
+ * <p>
+ * Run all suites with main, optionally filtered by a regex on check names. Exits with status 1 if any check fails.
+ */
+public class ScalingHarness {
+	public static final double TOLERANCE = 0.35;
+	static final int TRIALS = 5;
+	static final long MIN_TRIAL_NANOS = 20_000_000;
+
+	/**
+	 * One timed run. Returns something derived from the work, so it cannot be optimized away.
+	 */
+	@FunctionalInterface
+	public interface Operation {
+		long run();
+	}
+
+	/**
+	 * Untimed setup of an input of size n, returning the operation to time on it.
+	 */
+	@FunctionalInterface
+	public interface Workload {
+		Operation prepare(int n);
+	}
+
+	public static class Check {
+		public final String name;
+		public final Complexity claimed;
+		final int minSize;
+		final int maxSize;
+		final Workload workload;
+
+		/**
+		 * @param minSize first size timed; sizes double up to maxSize
+		 */
+		public Check(String name, Complexity claimed, int minSize, int maxSize, Workload workload) {
+			if (minSize <= 1 || maxSize < 4 * minSize) throw new IllegalArgumentException("Need at least 3 sizes");
+			this.name = name;
+			this.claimed = claimed;
+			this.minSize = minSize;
+			this.maxSize = maxSize;
+			this.workload = workload;
+		}
+	}
+
+	public static class Result {
+		public final Check check;
+		public final int[] sizes;
+		public final double[] nanosPerOp;
+		public final double measuredExponent; // slope of log(time) against log(n)
+		public final double excessExponent; // slope of log(time / claimed growth) against log(n)
+
+		Result(Check check, int[] sizes, double[] nanosPerOp) {
+			this.check = check;
+			this.sizes = sizes;
+			this.nanosPerOp = nanosPerOp;
+			double[] logSizes = new double[sizes.length];
+			double[] logTimes = new double[sizes.length];
+			double[] logExcess = new double[sizes.length];
+			for (int i = 0; i < sizes.length; i++) {
+				logSizes[i] = Math.log(sizes[i]);
+				logTimes[i] = Math.log(nanosPerOp[i]);
+				logExcess[i] = logTimes[i] - Math.log(check.claimed.growth(sizes[i]));
+			}
+			this.measuredExponent = slope(logSizes, logTimes);
+			this.excessExponent = slope(logSizes, logExcess);
+		}
+
+		public boolean passed() {
+			return excessExponent <= TOLERANCE;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-45s claims %-10s measured exponent %5.2f, excess %5.2f  %s",
+							check.name, check.claimed.notation, measuredExponent, excessExponent, passed() ? "ok" : "FAIL");
+		}
+	}
+
+	private static long sink = 0;
+
+	public static Result run(Check check) {
+		List<Integer> sizes = new ArrayList<>();
+		for (int n = check.minSize; n <= check.maxSize; n *= 2) {
+			sizes.add(n);
+		}
+		int[] sizeArray = new int[sizes.size()];
+		double[] nanosPerOp = new double[sizes.size()];
+		for (int i = 0; i < sizeArray.length; i++) {
+			sizeArray[i] = sizes.get(i);
+			nanosPerOp[i] = nanosPerOp(check.workload.prepare(sizeArray[i]));
+		}
+		return new Result(check, sizeArray, nanosPerOp);
+	}
+
+	// best of several trials, after one untimed warm up trial
+	private static double nanosPerOp(Operation operation) {
+		double best = Double.MAX_VALUE;
+		for (int trial = 0; trial <= TRIALS; trial++) {
+			long reps = 0;
+			long startTime = System.nanoTime();
+			long elapsed;
+			do {
+				sink += operation.run();
+				reps++;
+				elapsed = System.nanoTime() - startTime;
+			} while (elapsed < MIN_TRIAL_NANOS);
+			if (trial > 0) {
+				best = Math.min(best, (double) elapsed / reps);
+			}
+		}
+		return best;
+	}
+
+	// least squares slope of y against x
+	static double slope(double[] x, double[] y) {
+		double meanX = 0;
+		double meanY = 0;
+		for (int i = 0; i < x.length; i++) {
+			meanX += x[i] / x.length;
+			meanY += y[i] / y.length;
+		}
+		double covariance = 0;
+		double variance = 0;
+		for (int i = 0; i < x.length; i++) {
+			covariance += (x[i] - meanX) * (y[i] - meanY);
+			variance += (x[i] - meanX) * (x[i] - meanX);
+		}
+		return covariance / variance;
+	}
+
+	static List<Check> allChecks() {
+		List<Check> checks = new ArrayList<>();
+		checks.addAll(IntervalsScaling.checks());
+		checks.addAll(SequencesScaling.checks());
+		checks.addAll(TreesScaling.checks());
+		return checks;
+	}
+
+	/**
+	 * args: [regex on check names]
+	 */
+	public static void main(String... args) {
+		Pattern filter = Pattern.compile(args.length > 0 ? args[0] : ".*");
+		List<Result> failures = new ArrayList<>();
+		for (Check check : allChecks()) {
+			if (!filter.matcher(check.name).find()) continue;
+			Result result = run(check);
+			System.out.println(result);
+			if (!result.passed()) {
+				failures.add(result);
+			}
+		}
+		if (sink == 42) System.out.println(); // keeps results live
+		if (!failures.isEmpty()) {
+			System.out.println(failures.size() + " operation(s) scale worse than claimed:");
+			for (Result failure : failures) {
+				System.out.println("  " + failure.check.name);
+				for (int i = 0; i < failure.sizes.length; i++) {
+					System.out.printf(Locale.ROOT, "    n = %8d: %12.1f ns/op%n", failure.sizes[i], failure.nanosPerOp[i]);
+				}
+			}
+			System.exit(1);
+		}
+	}
+}
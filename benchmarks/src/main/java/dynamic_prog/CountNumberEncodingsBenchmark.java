@@ -0,0 +1,41 @@
+package dynamic_prog;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CountNumberEncodings on a digit string of {size} digits.
+ * Only the DP version is measured; the recursive version is exponential in the length.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountNumberEncodingsBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	String digits;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sb = new StringBuilder(size);
+		for (long key : distribution.longs(size, size, Distribution.DEFAULT_SEED)) {
+			sb.append(1 + key % 9); // no zeros, so every prefix stays decodable
+		}
+		digits = sb.toString();
+	}
+
+	@Benchmark
+	public int countDecodingsDP() {
+		return CountNumberEncodings.countDecodingsDP(digits);
+	}
+}
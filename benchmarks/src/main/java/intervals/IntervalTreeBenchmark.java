@@ -0,0 +1,79 @@
+package intervals;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stabbing queries against an IntervalTree of {size} intervals.
+ * IntervalTree has no construction API yet, so a balanced tree is built directly from its nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntervalTreeBenchmark {
+	static final int OPS = 1000;
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	IntervalTree.Node root;
+	int[] points = new int[OPS];
+
+	@Setup
+	public void setUp() {
+		long[] starts = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		List<Interval> intervals = new ArrayList<>(size);
+		for (long start : starts) {
+			intervals.add(new Interval((int) start, (int) start + random.nextInt(100)));
+		}
+		Collections.sort(intervals);
+		root = buildBalanced(intervals, 0, size - 1);
+		for (int i = 0; i < OPS; i++) {
+			points[i] = random.nextInt(size);
+		}
+	}
+
+	private static IntervalTree.Node buildBalanced(List<Interval> sorted, int lo, int hi) {
+		if (lo > hi) return null;
+		int mid = (lo + hi) >>> 1;
+		IntervalTree.Node node = new IntervalTree.Node();
+		node.interval = sorted.get(mid);
+		node.left = buildBalanced(sorted, lo, mid - 1);
+		node.right = buildBalanced(sorted, mid + 1, hi);
+		node.maxEnd = node.interval.end;
+		if (node.left != null) node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+		if (node.right != null) node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+		return node;
+	}
+
+	@Benchmark
+	public int findAnyContaining() {
+		int found = 0;
+		for (int point : points) {
+			if (IntervalTree.findAnyContaining(root, point) != null) found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int findAllContaining() {
+		int found = 0;
+		for (int point : points) {
+			found += IntervalTree.findAllContaining(root, point).size();
+		}
+		return found;
+	}
+}
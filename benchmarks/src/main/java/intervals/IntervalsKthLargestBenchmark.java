@@ -0,0 +1,63 @@
+package intervals;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IntervalsKthLargest over {size} classes and {size} questions: building the layer index, and answering.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntervalsKthLargestBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	long[] X;
+	long[] Y;
+	long[] Z;
+	IntervalsKthLargest solver;
+
+	@Setup
+	public void setUp() {
+		// spread interval bounds over a domain much larger than the number of classes, as in the large dataset
+		X = scaled(distribution.longs(size, size, 1));
+		Y = scaled(distribution.longs(size, size, 2));
+		solver = new IntervalsKthLargest(size, X, Y);
+		Z = Distribution.UNIFORM.longs(size, size, 3);
+		for (int i = 0; i < size; i++) {
+			Z[i] = Z[i] * (solver.numVals / size + 1);
+		}
+	}
+
+	private static long[] scaled(long[] keys) {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] *= 1000;
+		}
+		return keys;
+	}
+
+	@Benchmark
+	public IntervalsKthLargest construct() {
+		return new IntervalsKthLargest(size, X, Y);
+	}
+
+	@Benchmark
+	public long genAnswerProof() {
+		return solver.genAnswerProof(Z);
+	}
+
+	@Benchmark
+	public long solve() {
+		return new IntervalsKthLargest(size, X, Y).genAnswerProof(Z);
+	}
+}
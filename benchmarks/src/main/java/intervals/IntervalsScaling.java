@@ -0,0 +1,79 @@
+package intervals;
+
+import benchmarks.Complexity;
+import benchmarks.ScalingHarness.Check;
+import generators.Distribution;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Scaling checks for the intervals package, against the complexities documented in the source.
+ */
+public class IntervalsScaling {
+	static final int BATCH = 256; // operations per timed run, to keep timer overhead out of O(log n) costs
+
+	public static List<Check> checks() {
+		return Arrays.asList(
+						new Check("SegmentTree.query", Complexity.LOG, 1 << 10, 1 << 18, n -> {
+							SegmentTree<Long> tree = sumTree(n);
+							int[][] ranges = randomRanges(n);
+							return () -> {
+								long sum = 0;
+								for (int[] range : ranges) {
+									sum += tree.query(range[0], range[1]);
+								}
+								return sum;
+							};
+						}),
+						new Check("SegmentTree.update", Complexity.LOG, 1 << 10, 1 << 18, n -> {
+							SegmentTree<Long> tree = sumTree(n);
+							int[][] ranges = randomRanges(n);
+							return () -> {
+								for (int[] range : ranges) {
+									tree.update(range[0], v -> v + 1);
+								}
+								return tree.domainSize;
+							};
+						}),
+						new Check("IntervalsKthLargest.<init>", Complexity.N_LOG_N, 1 << 10, 1 << 17, n -> {
+							long[] X = Distribution.UNIFORM.longs(n, 1_000_000_000, 1);
+							long[] Y = Distribution.UNIFORM.longs(n, 1_000_000_000, 2);
+							return () -> new IntervalsKthLargest(n, X, Y).numVals;
+						}),
+						new Check("IntervalsKthLargest.getKthLargestValue", Complexity.LOG, 1 << 10, 1 << 18, n -> {
+							long[] X = Distribution.UNIFORM.longs(n, 1_000_000_000, 1);
+							long[] Y = Distribution.UNIFORM.longs(n, 1_000_000_000, 2);
+							IntervalsKthLargest solver = new IntervalsKthLargest(n, X, Y);
+							long[] K = Distribution.UNIFORM.longs(BATCH, solver.numVals, 3);
+							return () -> {
+								long sum = 0;
+								for (long k : K) {
+									sum += solver.getKthLargestValue(k + 1);
+								}
+								return sum;
+							};
+						})
+		);
+	}
+
+	private static SegmentTree<Long> sumTree(int n) {
+		List<Long> base = Arrays.stream(Distribution.UNIFORM.longs(n, n, Distribution.DEFAULT_SEED))
+						.boxed()
+						.collect(Collectors.toList());
+		return new SegmentTree<>(base, Long::sum, 0L);
+	}
+
+	private static int[][] randomRanges(int n) {
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		int[][] ranges = new int[BATCH][];
+		for (int i = 0; i < BATCH; i++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			ranges[i] = new int[]{Math.min(a, b), Math.max(a, b)};
+		}
+		return ranges;
+	}
+}
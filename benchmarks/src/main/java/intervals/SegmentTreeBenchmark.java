@@ -0,0 +1,72 @@
+package intervals;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Range sum queries and point updates on a SegmentTree over {size} elements.
+ * Each invocation runs a fixed batch of operations, so scores are comparable across sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentTreeBenchmark {
+	static final int OPS = 1000;
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	List<Long> base;
+	SegmentTree<Long> tree;
+	int[] starts = new int[OPS];
+	int[] ends = new int[OPS];
+
+	@Setup
+	public void setUp() {
+		base = Arrays.stream(distribution.longs(size, size, Distribution.DEFAULT_SEED))
+						.boxed()
+						.collect(Collectors.toList());
+		tree = new SegmentTree<>(base, Long::sum, 0L);
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		for (int i = 0; i < OPS; i++) {
+			int a = random.nextInt(size);
+			int b = random.nextInt(size);
+			starts[i] = Math.min(a, b);
+			ends[i] = Math.max(a, b);
+		}
+	}
+
+	@Benchmark
+	public SegmentTree<Long> construct() {
+		return new SegmentTree<>(base, Long::sum, 0L);
+	}
+
+	@Benchmark
+	public long query() {
+		long sum = 0;
+		for (int i = 0; i < OPS; i++) {
+			sum += tree.query(starts[i], ends[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public SegmentTree<Long> update() {
+		for (int i = 0; i < OPS; i++) {
+			tree.update(starts[i], v -> v + 1);
+		}
+		return tree;
+	}
+}
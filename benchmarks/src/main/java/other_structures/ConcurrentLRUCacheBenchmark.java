@@ -0,0 +1,76 @@
+package other_structures;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hit throughput of a warm ConcurrentLRUCache of {capacity} entries read from every core at once,
+ * against an LRUCache behind a single lock. Each thread replays its own stretch of a trace of cached keys.
+ * Compare runs with -t 1, 2, 4, ... to see how each scales with threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class ConcurrentLRUCacheBenchmark {
+	static final int TRACE_LENGTH = 1 << 16;
+
+	@Param({"1000", "100000"})
+	int capacity;
+
+	@Param({"UNIFORM", "SKEWED"})
+	Distribution distribution;
+
+	int[] trace;
+	ConcurrentLRUCache concurrent;
+	LRUCache locked;
+	final AtomicInteger threadCount = new AtomicInteger();
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int position;
+
+		@Setup
+		public void setUp(ConcurrentLRUCacheBenchmark benchmark) {
+			position = benchmark.threadCount.getAndIncrement() * 7919;
+		}
+
+		int next(int[] trace) {
+			return trace[position++ & (TRACE_LENGTH - 1)];
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		long[] keys = distribution.longs(TRACE_LENGTH, capacity, Distribution.DEFAULT_SEED);
+		trace = new int[TRACE_LENGTH];
+		concurrent = new ConcurrentLRUCache(capacity);
+		locked = new LRUCache(capacity);
+		for (int key = 0; key < capacity; key++) {
+			concurrent.put(key, key);
+			locked.put(key, key);
+		}
+		for (int i = 0; i < TRACE_LENGTH; i++) {
+			trace[i] = (int) keys[i];
+		}
+	}
+
+	@Benchmark
+	public int concurrentGet(Cursor cursor) {
+		return concurrent.get(cursor.next(trace));
+	}
+
+	@Benchmark
+	public int lockedGet(Cursor cursor) {
+		int key = cursor.next(trace);
+		synchronized (locked) {
+			return locked.get(key);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package other_structures;
+
+import generators.Distribution;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Trace-driven hit rate comparison of LRUCache, ClockCache and TinyLfuLRUCache, replaying each trace read-through
+ * (get, and put on a miss) against each at several capacities.
+ * <p>
+ * Traces, over a key space 100 times the largest capacity:
+ * - ZIPF: Zipfian keys with exponent {@link #ZIPF_EXPONENT}, so the popular keys outnumber every capacity.
+ * - SCAN: the same Zipfian keys, with a batch job sharing the cache in alternate stretches of {@link #SCAN_PERIOD}
+ * accesses, during which every other access scans a key never seen before.
+ * - LOOP: cyclic scans over 1.5 times the largest capacity, where LRU never hits.
+ * <p>
+ * Run with main; hit rates are deterministic for a given seed, unlike timings, so this is not a JMH benchmark.
+ */
+public class HitRateSimulation {
+	static final int TRACE_LENGTH = 2_000_000;
+	static final int[] CAPACITIES = {1_000, 10_000, 100_000};
+	static final int KEY_SPACE = 100 * 100_000;
+	static final double ZIPF_EXPONENT = 0.9;
+	static final int SCAN_PERIOD = 200_000;
+
+	enum Trace {
+		ZIPF, SCAN, LOOP;
+
+		int[] generate(long seed) {
+			int[] trace = new int[TRACE_LENGTH];
+			LongSupplier zipf = zipfKeys(new SplittableRandom(seed));
+			int loopLength = CAPACITIES[CAPACITIES.length - 1] * 3 / 2;
+			int coldKey = KEY_SPACE; // scanned keys lie outside the Zipfian key space, so they are never reused
+			for (int i = 0; i < TRACE_LENGTH; ) {
+				switch (this) {
+					case ZIPF:
+						trace[i++] = (int) zipf.getAsLong();
+						break;
+					case SCAN:
+						// a batch job sharing the cache: during its runs, every other access scans a new key
+						boolean scanning = i / SCAN_PERIOD % 2 == 1;
+						trace[i] = scanning && i % 2 == 1 ? coldKey++ : (int) zipf.getAsLong();
+						i++;
+						break;
+					case LOOP:
+						trace[i] = i % loopLength;
+						i++;
+						break;
+				}
+			}
+			return trace;
+		}
+	}
+
+	// key k drawn with probability about proportional to 1 / (k+1)^ZIPF_EXPONENT, by inverting the continuous CDF
+	static LongSupplier zipfKeys(SplittableRandom random) {
+		double power = 1 - ZIPF_EXPONENT;
+		double span = Math.pow(KEY_SPACE + 1, power) - 1;
+		return () -> Math.min(KEY_SPACE - 1, (long) Math.pow(1 + random.nextDouble() * span, 1 / power) - 1);
+	}
+
+	interface Cache {
+		int get(int key);
+
+		void put(int key, int value);
+	}
+
+	static double hitRate(int[] trace, Cache cache) {
+		long hits = 0;
+		for (int key : trace) {
+			if (cache.get(key) != -1) {
+				hits++;
+			} else {
+				cache.put(key, key);
+			}
+		}
+		return (double) hits / trace.length;
+	}
+
+	public static void main(String... args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : Distribution.DEFAULT_SEED;
+		System.out.printf(Locale.ROOT, "%-6s %10s %10s %10s %10s%n", "trace", "capacity", "LRU", "CLOCK", "TinyLFU");
+		for (Trace trace : Trace.values()) {
+			int[] keys = trace.generate(seed);
+			for (int capacity : CAPACITIES) {
+				LRUCache lru = new LRUCache(capacity);
+				ClockCache clock = new ClockCache(capacity);
+				TinyLfuLRUCache tinyLfu = new TinyLfuLRUCache(capacity);
+				double lruRate = hitRate(keys, new Cache() {
+					public int get(int key) { return lru.get(key); }
+
+					public void put(int key, int value) { lru.put(key, value); }
+				});
+				double clockRate = hitRate(keys, new Cache() {
+					public int get(int key) { return clock.get(key); }
+
+					public void put(int key, int value) { clock.put(key, value); }
+				});
+				double tinyLfuRate = hitRate(keys, new Cache() {
+					public int get(int key) { return tinyLfu.get(key); }
+
+					public void put(int key, int value) { tinyLfu.put(key, value); }
+				});
+				System.out.printf(Locale.ROOT, "%-6s %10d %9.2f%% %9.2f%% %9.2f%%%n",
+								trace, capacity, 100 * lruRate, 100 * clockRate, 100 * tinyLfuRate);
+			}
+		}
+	}
+}
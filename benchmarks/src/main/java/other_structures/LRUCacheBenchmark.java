@@ -0,0 +1,108 @@
+package other_structures;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaying a read-through access trace against an LRUCache of {capacity} entries,
+ * against an IntLRUCache (same policy, primitive arrays), a ClockCache (approximate LRU, hits only set a bit),
+ * and a TinyLfuLRUCache (admission filtered).
+ * readThroughWithStats is readThrough with stats recording on, to keep its overhead in check.
+ * Keys range over twice the capacity, so the distribution decides the hit rate:
+ * SKEWED mostly hits, UNIFORM hits about half the time, and SORTED is a cyclic scan that always misses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LRUCacheBenchmark {
+	static final int TRACE_LENGTH = 100_000;
+
+	@Param({"1000", "100000"})
+	int capacity;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	int[] trace;
+
+	@Setup
+	public void setUp() {
+		long[] keys = distribution.longs(TRACE_LENGTH, TRACE_LENGTH, Distribution.DEFAULT_SEED);
+		trace = new int[TRACE_LENGTH];
+		for (int i = 0; i < TRACE_LENGTH; i++) {
+			trace[i] = (int) (keys[i] % (2L * capacity));
+		}
+	}
+
+	@Benchmark
+	public int readThrough() {
+		LRUCache cache = new LRUCache(capacity);
+		int hits = 0;
+		for (int key : trace) {
+			if (cache.get(key) != -1) {
+				hits++;
+			} else {
+				cache.put(key, key);
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public long readThroughWithStats() {
+		LRUCache cache = new LRUCache(capacity, true);
+		for (int key : trace) {
+			if (cache.get(key) == -1) {
+				cache.put(key, key);
+			}
+		}
+		return cache.stats().hitCount;
+	}
+
+	@Benchmark
+	public int readThroughIntArrays() {
+		IntLRUCache cache = new IntLRUCache(capacity);
+		int hits = 0;
+		for (int key : trace) {
+			if (cache.get(key) != -1) {
+				hits++;
+			} else {
+				cache.put(key, key);
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int readThroughClock() {
+		ClockCache cache = new ClockCache(capacity);
+		int hits = 0;
+		for (int key : trace) {
+			if (cache.get(key) != -1) {
+				hits++;
+			} else {
+				cache.put(key, key);
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int readThroughTinyLfu() {
+		TinyLfuLRUCache cache = new TinyLfuLRUCache(capacity);
+		int hits = 0;
+		for (int key : trace) {
+			if (cache.get(key) != -1) {
+				hits++;
+			} else {
+				cache.put(key, key);
+			}
+		}
+		return hits;
+	}
+}
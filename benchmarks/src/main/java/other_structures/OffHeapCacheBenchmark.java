@@ -0,0 +1,64 @@
+package other_structures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping values off-heap: gets and puts of {valueSize}-byte values, all hits, against an OffHeapCache,
+ * which copies values in and out of direct memory, and against a WeightedLRUCache of byte arrays on the heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OffHeapCacheBenchmark {
+	static final int ENTRIES = 100_000;
+	static final int KEYS = 1 << 16; // power of 2, fewer than ENTRIES so every get hits
+
+	@Param({"100", "1000"})
+	int valueSize;
+
+	OffHeapCache offHeap;
+	WeightedLRUCache<Long, byte[]> onHeap;
+	long[] keys;
+	byte[] value;
+	int next = 0;
+
+	@Setup
+	public void setUp() {
+		offHeap = new OffHeapCache(128L << 20); // room for every key at either value size
+		onHeap = new WeightedLRUCache<>(ENTRIES);
+		SplittableRandom random = new SplittableRandom(1);
+		keys = new long[KEYS];
+		value = new byte[valueSize];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = random.nextLong();
+			offHeap.put(keys[i], value);
+			onHeap.put(keys[i], value.clone());
+		}
+	}
+
+	@Benchmark
+	public byte[] offHeapGet() {
+		return offHeap.get(keys[next++ & (KEYS - 1)]);
+	}
+
+	@Benchmark
+	public byte[] onHeapGet() {
+		return onHeap.get(keys[next++ & (KEYS - 1)]);
+	}
+
+	@Benchmark
+	public void offHeapPut() {
+		offHeap.put(keys[next++ & (KEYS - 1)], value);
+	}
+
+	@Benchmark
+	public void onHeapPut() {
+		onHeap.put(keys[next++ & (KEYS - 1)], value.clone()); // a cached array must not be shared with the caller
+	}
+}
@@ -0,0 +1,59 @@
+package parsing;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CountAtomsChemFormula on a formula of {size} element terms, with nested multiplied groups.
+ * The distribution picks the elements, so SKEWED formulas repeat a few elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountAtomsChemFormulaBenchmark {
+	static final String[] ELEMENTS = {"H", "He", "Li", "Be", "B", "C", "N", "O", "F", "Ne", "Na", "Mg", "Al", "Si",
+					"P", "S", "Cl", "Ar", "K", "Ca", "Fe", "Cu", "Zn", "Ag", "Au"};
+	static final int MAX_DEPTH = 4;
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	String formula;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		StringBuilder sb = new StringBuilder();
+		int depth = 0;
+		for (long key : distribution.longs(size, size, Distribution.DEFAULT_SEED)) {
+			if (depth < MAX_DEPTH && random.nextInt(8) == 0) {
+				sb.append('(');
+				depth++;
+			}
+			sb.append(ELEMENTS[(int) (key % ELEMENTS.length)]);
+			if (random.nextBoolean()) sb.append(2 + random.nextInt(9));
+			if (depth > 0 && random.nextInt(8) == 0) {
+				sb.append(')').append(2 + random.nextInt(3));
+				depth--;
+			}
+		}
+		while (depth-- > 0) {
+			sb.append(")2");
+		}
+		formula = sb.toString();
+	}
+
+	@Benchmark
+	public String countOfAtoms() {
+		return new CountAtomsChemFormula().countOfAtoms(formula);
+	}
+}
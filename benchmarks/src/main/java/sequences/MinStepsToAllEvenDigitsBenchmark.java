@@ -0,0 +1,44 @@
+package sequences;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MinStepsToAllEvenDigits.minSteps over a batch of {size} numbers, spread from the distribution's keys
+ * to up to 18 digits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MinStepsToAllEvenDigitsBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	long[] numbers;
+
+	@Setup
+	public void setUp() {
+		numbers = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+		for (int i = 0; i < size; i++) {
+			numbers[i] = (numbers[i] * 0x9E3779B97F4A7C15L) >>> 4;
+		}
+	}
+
+	@Benchmark
+	public long minSteps() {
+		long sum = 0;
+		for (long n : numbers) {
+			sum += MinStepsToAllEvenDigits.minSteps(n);
+		}
+		return sum;
+	}
+}
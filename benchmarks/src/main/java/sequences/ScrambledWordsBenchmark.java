@@ -0,0 +1,64 @@
+package sequences;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScrambledWords.solve on a string of {size} letters against a dictionary of scrambled words,
+ * half cut from the string (so found) and half random.
+ * The distribution shapes the letters: SKEWED uses few distinct letters, SORTED cycles through the alphabet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScrambledWordsBenchmark {
+	static final int DICT_SIZE = 200;
+	static final int MAX_WORD_LENGTH = 100;
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	byte[] letters;
+	String[] dict;
+
+	@Setup
+	public void setUp() {
+		long[] keys = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+		letters = new byte[size];
+		for (int i = 0; i < size; i++) {
+			letters[i] = (byte) (keys[i] % ScrambledWords.ALPHABET_SIZE);
+		}
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		dict = new String[DICT_SIZE];
+		for (int w = 0; w < DICT_SIZE; w++) {
+			int length = 2 + random.nextInt(Math.min(size, MAX_WORD_LENGTH) - 1);
+			char[] word = new char[length];
+			int start = random.nextInt(size - length + 1);
+			for (int i = 0; i < length; i++) {
+				int letter = w % 2 == 0 ? letters[start + i] : random.nextInt(ScrambledWords.ALPHABET_SIZE);
+				word[i] = (char) (letter + ScrambledWords.LETTER_OFFSET);
+			}
+			for (int i = length - 2; i > 1; i--) { // scramble the middle, keeping first and last letters
+				int j = 1 + random.nextInt(i);
+				char swap = word[i];
+				word[i] = word[j];
+				word[j] = swap;
+			}
+			dict[w] = new String(word);
+		}
+	}
+
+	@Benchmark
+	public int solve() {
+		return ScrambledWords.solve(letters, dict);
+	}
+}
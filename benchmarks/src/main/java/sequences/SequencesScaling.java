@@ -0,0 +1,24 @@
+package sequences;
+
+import benchmarks.Complexity;
+import benchmarks.ScalingHarness.Check;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Scaling checks for the sequences package, against the complexities documented in the source.
+ */
+public class SequencesScaling {
+
+	public static List<Check> checks() {
+		// n is the grid area; walking from a corner covers the most cells outside the grid
+		return Collections.singletonList(
+						new Check("SpiralWalk.spiralMatrixIII (n = area)", Complexity.QUADRATIC, 1 << 8, 1 << 16, n -> {
+							int side = (int) Math.sqrt(n);
+							SpiralWalk walk = new SpiralWalk();
+							return () -> walk.spiralMatrixIII(side, side, 0, 0).length;
+						})
+		);
+	}
+}
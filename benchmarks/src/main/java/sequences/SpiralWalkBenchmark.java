@@ -0,0 +1,30 @@
+package sequences;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpiralWalk over a {side} x {side} grid, starting from the center or from a corner
+ * (where most of the spiral runs outside the grid).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpiralWalkBenchmark {
+
+	@Param({"100", "1000"})
+	int side;
+
+	@Param({"CENTER", "CORNER"})
+	String start;
+
+	@Benchmark
+	public int[][] spiralMatrixIII() {
+		int startCell = start.equals("CENTER") ? side / 2 : 0;
+		return new SpiralWalk().spiralMatrixIII(side, side, startCell, startCell);
+	}
+}
@@ -0,0 +1,44 @@
+package sequences;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StockTrading over {size} daily prices shaped by the distribution (SORTED is a steadily rising market).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockTradingBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	int[] prices;
+
+	@Setup
+	public void setUp() {
+		prices = distribution.ints(size, size, Distribution.DEFAULT_SEED);
+		for (int i = 0; i < size; i++) {
+			prices[i]++; // multi-trade divides by price
+		}
+	}
+
+	@Benchmark
+	public int maxProfitOneTrade() {
+		return StockTrading.maxProfitOneTrade(prices);
+	}
+
+	@Benchmark
+	public int maxProfitMultiTrades() {
+		return StockTrading.maxProfitMultiTrades(prices, 1000);
+	}
+}
@@ -0,0 +1,48 @@
+package sequences;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SwapChargeShoot.solve on {size} instructions. Charges are placed where the distribution's first keys land,
+ * capped so damage fits in a long, and the shield only allows the minimum damage so every charge must move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SwapChargeShootBenchmark {
+	static final int MAX_CHARGES = 40;
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	boolean[] charging;
+	long shield;
+
+	@Setup
+	public void setUp() {
+		charging = new boolean[size];
+		int charges = 0;
+		for (long position : distribution.longs(size, size, Distribution.DEFAULT_SEED)) {
+			if (charges == MAX_CHARGES) break;
+			if (!charging[(int) position]) {
+				charging[(int) position] = true;
+				charges++;
+			}
+		}
+		shield = SwapChargeShoot.nShoots(charging);
+	}
+
+	@Benchmark
+	public long solve() {
+		return SwapChargeShoot.solve(charging, shield);
+	}
+}
@@ -0,0 +1,42 @@
+package sets_and_tuples;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductTriplets on {size} values. solve is quadratic in distinct values, so SKEWED inputs
+ * (few distinct values, many duplicates) stress the counting while UNIFORM and SORTED stress the pair loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductTripletsBenchmark {
+
+	@Param({"1000", "5000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	long[] values;
+
+	@Setup
+	public void setUp() {
+		values = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+	}
+
+	@Benchmark
+	public long solve() {
+		return ProductTriplets.solve(values);
+	}
+
+	@Benchmark
+	public long solveAllDistinct() {
+		return ProductTriplets.solveAllDistinct(values);
+	}
+}
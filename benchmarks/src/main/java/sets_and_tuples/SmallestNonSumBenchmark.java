@@ -0,0 +1,46 @@
+package sets_and_tuples;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SmallestNonSum on {size} positive values. The recursive version recurses once per value, which bounds the sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmallestNonSumBenchmark {
+
+	@Param({"100", "1000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	List<Integer> values;
+
+	@Setup
+	public void setUp() {
+		values = new ArrayList<>(size);
+		for (int key : distribution.ints(size, size, Distribution.DEFAULT_SEED)) {
+			values.add(key + 1);
+		}
+	}
+
+	@Benchmark
+	public int solveIterative() {
+		return new SmallestNonSum().solveIterative(values);
+	}
+
+	@Benchmark
+	public int solveRecursive() {
+		return new SmallestNonSum().solveRecursive(values);
+	}
+}
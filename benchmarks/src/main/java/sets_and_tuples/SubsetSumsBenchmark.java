@@ -0,0 +1,47 @@
+package sets_and_tuples;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SubsetSums on {size} values centered on 0, so many triplets and quadruplets sum to the target.
+ * Both are output-sensitive: dense inputs (SORTED) have on the order of size^3 distinct quadruplets,
+ * which bounds the sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubsetSumsBenchmark {
+
+	@Param({"100", "300"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	int[] nums;
+
+	@Setup
+	public void setUp() {
+		nums = distribution.ints(size, size, Distribution.DEFAULT_SEED);
+		for (int i = 0; i < size; i++) {
+			nums[i] -= size / 2;
+		}
+	}
+
+	@Benchmark
+	public List<List<Integer>> threeSum() {
+		return new SubsetSums().threeSum(nums.clone()); // sorts its input
+	}
+
+	@Benchmark
+	public List<List<Integer>> fourSum() {
+		return new SubsetSums().fourSum(nums.clone(), 0);
+	}
+}
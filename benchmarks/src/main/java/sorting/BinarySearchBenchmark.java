@@ -0,0 +1,68 @@
+package sorting;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches of BinarySearch lookups in a sorted array of {size} keys.
+ * SKEWED arrays are mostly long runs of duplicates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinarySearchBenchmark {
+	static final int OPS = 1000;
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	int[] sorted;
+	int[] targets = new int[OPS];
+
+	@Setup
+	public void setUp() {
+		sorted = distribution.ints(size, size, Distribution.DEFAULT_SEED);
+		Arrays.sort(sorted);
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		for (int i = 0; i < OPS; i++) {
+			targets[i] = random.nextInt(size);
+		}
+	}
+
+	@Benchmark
+	public int findIndexOf() {
+		int sum = 0;
+		for (int target : targets) {
+			sum += BinarySearch.findIndexOf(target, sorted);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int findLeftmostInsertIndex() {
+		int sum = 0;
+		for (int target : targets) {
+			sum += BinarySearch.findLeftmostInsertIndex(target, sorted);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int findRightmostInsertIndex() {
+		int sum = 0;
+		for (int target : targets) {
+			sum += BinarySearch.findRightmostInsertIndex(target, sorted);
+		}
+		return sum;
+	}
+}
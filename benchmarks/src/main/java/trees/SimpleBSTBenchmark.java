@@ -0,0 +1,88 @@
+package trees;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a SimpleBST from {size} keys, and batches of lookups on the built tree.
+ * SORTED keys degenerate the unbalanced tree into a list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleBSTBenchmark {
+	static final int OPS = 1000;
+
+	@Param({"1000", "10000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	Long[] keys;
+	SimpleBST<Long> tree;
+	Long[] lookups = new Long[OPS];
+	int[] indexes = new int[OPS];
+
+	@Setup
+	public void setUp() {
+		long[] primitiveKeys = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+		keys = new Long[size];
+		tree = new SimpleBST<>();
+		for (int i = 0; i < size; i++) {
+			keys[i] = primitiveKeys[i];
+			tree.add(keys[i]);
+		}
+		Long largest = tree.get(tree.size() - 1);
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		for (int i = 0; i < OPS; i++) {
+			do { // the largest key has no successor
+				lookups[i] = keys[random.nextInt(size)];
+			} while (lookups[i].equals(largest));
+			indexes[i] = random.nextInt(tree.size());
+		}
+	}
+
+	@Benchmark
+	public SimpleBST<Long> add() {
+		SimpleBST<Long> tree = new SimpleBST<>();
+		for (Long key : keys) {
+			tree.add(key);
+		}
+		return tree;
+	}
+
+	@Benchmark
+	public int contains() {
+		int found = 0;
+		for (Long key : lookups) {
+			if (tree.contains(key)) found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public long successor() {
+		long sum = 0;
+		for (Long key : lookups) {
+			Long next = tree.successor(key);
+			sum += next == null ? 0 : next;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long get() {
+		long sum = 0;
+		for (int index : indexes) {
+			sum += tree.get(index);
+		}
+		return sum;
+	}
+}
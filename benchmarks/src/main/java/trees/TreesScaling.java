@@ -0,0 +1,66 @@
+package trees;
+
+import benchmarks.Complexity;
+import benchmarks.ScalingHarness.Check;
+import generators.Distribution;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Scaling checks for the trees package, on trees built from random insertion orders (expected O(log n) depth).
+ * <p>
+ * Index lookups are held to O(log n), the cost of a {@link BinaryTree#get(int)} on a tree of that depth.
+ * SimpleBST.get currently materializes the whole in-order list instead, so that check fails.
+ */
+public class TreesScaling {
+	static final int BATCH = 64;
+
+	public static List<Check> checks() {
+		return Arrays.asList(
+						new Check("SimpleBST.contains (random insertion order)", Complexity.LOG, 1 << 10, 1 << 17, n -> {
+							SimpleBST<Long> tree = randomTree(n);
+							long[] keys = Distribution.UNIFORM.longs(BATCH, n, 1);
+							return () -> {
+								long found = 0;
+								for (long key : keys) {
+									if (tree.contains(key)) found++;
+								}
+								return found;
+							};
+						}),
+						new Check("SimpleBST.get (random insertion order)", Complexity.LOG, 1 << 10, 1 << 15, n -> {
+							SimpleBST<Long> tree = randomTree(n);
+							int[] indexes = Distribution.UNIFORM.ints(BATCH, tree.size(), 1);
+							return () -> {
+								long sum = 0;
+								for (int index : indexes) {
+									sum += tree.get(index);
+								}
+								return sum;
+							};
+						})
+		);
+	}
+
+	// keys 0..n-1 inserted in a random order
+	private static SimpleBST<Long> randomTree(int n) {
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = i;
+		}
+		SplittableRandom random = new SplittableRandom(Distribution.DEFAULT_SEED);
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			long swap = keys[i];
+			keys[i] = keys[j];
+			keys[j] = swap;
+		}
+		SimpleBST<Long> tree = new SimpleBST<>();
+		for (long key : keys) {
+			tree.add(key);
+		}
+		return tree;
+	}
+}
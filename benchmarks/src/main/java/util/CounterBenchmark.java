@@ -0,0 +1,126 @@
+package util;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counting {size} keys with each counter implementation, and the bulk queries run on a filled counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED", "SORTED"})
+	Distribution distribution;
+
+	long[] keys;
+	int[] intKeys;
+	List<Long> boxedKeys;
+	LongCounter filledLongCounter;
+	Counter<Long> filledTrackedCounter;
+
+	@Setup
+	public void setUp() {
+		keys = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+		intKeys = distribution.ints(size, size, Distribution.DEFAULT_SEED);
+		boxedKeys = Arrays.stream(keys).boxed().collect(Collectors.toList());
+		filledLongCounter = new LongCounter(keys);
+		filledTrackedCounter = new Counter<>(false, false, true);
+		boxedKeys.forEach(filledTrackedCounter::incrementCountFor);
+	}
+
+	@Benchmark
+	public Counter<Long> counter() {
+		Counter<Long> counter = new Counter<>();
+		for (Long key : boxedKeys) {
+			counter.incrementCountFor(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public Counter<Long> counterTrackingFrequencies() {
+		Counter<Long> counter = new Counter<>(false, false, true);
+		for (Long key : boxedKeys) {
+			counter.incrementCountFor(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public Counter<Long> counterParallelCollector() {
+		return boxedKeys.parallelStream().collect(Counter.toCounter());
+	}
+
+	@Benchmark
+	public LongCounter longCounter() {
+		LongCounter counter = new LongCounter();
+		for (long key : keys) {
+			counter.incrementCountFor(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public LongCounter longCounterParallel() {
+		return LongCounter.countParallel(keys);
+	}
+
+	@Benchmark
+	public IntCounter intCounter() {
+		IntCounter counter = new IntCounter();
+		for (int key : intKeys) {
+			counter.incrementCountFor(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public ConcurrentCounter<Long> concurrentCounter() {
+		ConcurrentCounter<Long> counter = new ConcurrentCounter<>();
+		for (Long key : boxedKeys) {
+			counter.increment(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public SpaceSavingCounter<Long> spaceSavingCounter() {
+		SpaceSavingCounter<Long> counter = new SpaceSavingCounter<>(100);
+		for (Long key : boxedKeys) {
+			counter.incrementCountFor(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public CountMinSketch<Long> countMinSketch() {
+		CountMinSketch<Long> sketch = new CountMinSketch<>(0.001, 0.99);
+		for (Long key : boxedKeys) {
+			sketch.incrementCountFor(key);
+		}
+		return sketch;
+	}
+
+	@Benchmark
+	public SortedCounts exportSorted() {
+		return filledLongCounter.exportSorted();
+	}
+
+	@Benchmark
+	public List<Counter.Entry<Long>> mostCommon() {
+		return filledTrackedCounter.mostCommon(10);
+	}
+}
@@ -0,0 +1,60 @@
+package util;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing {size} whitespace-separated longs with FastInput against Scanner.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastInputBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED"})
+	Distribution distribution;
+
+	byte[] input;
+
+	@Setup
+	public void setUp() {
+		// spread values over the whole long range so token lengths vary
+		String text = Arrays.stream(distribution.longs(size, size, Distribution.DEFAULT_SEED))
+						.mapToObj(key -> Long.toString(key * 0x9E3779B97F4A7C15L))
+						.collect(Collectors.joining(" "));
+		input = text.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@Benchmark
+	public long fastInput() {
+		FastInput in = new FastInput(new ByteArrayInputStream(input));
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += in.nextLong();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long scanner() {
+		Scanner in = new Scanner(new ByteArrayInputStream(input), "US-ASCII");
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += in.nextLong();
+		}
+		return sum;
+	}
+}
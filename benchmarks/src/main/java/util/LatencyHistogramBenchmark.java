@@ -0,0 +1,53 @@
+package util;
+
+import generators.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording {size} values into a LatencyHistogram, and reading percentiles back out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	@Param({"UNIFORM", "SKEWED"})
+	Distribution distribution;
+
+	long[] values;
+	LatencyHistogram filled;
+
+	@Setup
+	public void setUp() {
+		values = distribution.longs(size, size, Distribution.DEFAULT_SEED);
+		for (int i = 0; i < size; i++) {
+			values[i] *= 1000; // nanosecond-like magnitudes
+		}
+		filled = new LatencyHistogram();
+		for (long value : values) {
+			filled.record(value);
+		}
+	}
+
+	@Benchmark
+	public LatencyHistogram record() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value : values) {
+			histogram.record(value);
+		}
+		return histogram;
+	}
+
+	@Benchmark
+	public long percentile() {
+		return filled.percentile(50) + filled.percentile(99);
+	}
+}